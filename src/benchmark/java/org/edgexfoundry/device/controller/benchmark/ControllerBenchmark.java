@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.edgexfoundry.domain.meta.ActionType;
+import org.edgexfoundry.domain.meta.CallbackAlert;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Controller endpoints called directly, without the servlet and Spring MVC layers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark {
+
+  private ControllerFixture fixture;
+
+  private MockHttpServletRequest getRequest;
+
+  private MockHttpServletRequest putRequest;
+
+  private MockHttpServletRequest errorRequest;
+
+  private MockHttpServletResponse errorResponse;
+
+  @State(Scope.Benchmark)
+  public static class CallbackState {
+
+    @Param({"DEVICE", "PROFILE", "PROVISIONWATCHER", "SCHEDULE", "SCHEDULEEVENT"})
+    public ActionType actionType;
+
+    CallbackAlert alert;
+
+    MockHttpServletRequest request;
+
+    @Setup
+    public void setup() {
+      alert = new CallbackAlert();
+      alert.setType(actionType);
+      alert.setId(ControllerFixture.DEVICE_ID);
+      request = new MockHttpServletRequest("PUT", "/callback");
+    }
+  }
+
+  @Setup
+  public void setup() {
+    fixture = new ControllerFixture();
+    getRequest = new MockHttpServletRequest("GET", "/api/v1/device");
+    putRequest = new MockHttpServletRequest("PUT", "/api/v1/device");
+    errorRequest = new MockHttpServletRequest("GET", "/error");
+    errorRequest.setAttribute("javax.servlet.error.status_code", 404);
+    errorRequest.setAttribute("javax.servlet.error.message", "Not found");
+    errorResponse = new MockHttpServletResponse();
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.shutdown();
+  }
+
+  @Benchmark
+  public Object getCommand() throws Exception {
+    return fixture.commandController
+        .getCommand(getRequest, ControllerFixture.DEVICE_ID, ControllerFixture.COMMAND, null)
+        .getCallable().call();
+  }
+
+  @Benchmark
+  public Object putCommand() throws Exception {
+    return fixture.commandController.getCommand(putRequest, ControllerFixture.DEVICE_ID,
+        ControllerFixture.COMMAND, ControllerFixture.ARGUMENTS).getCallable().call();
+  }
+
+  @Benchmark
+  public Object getCommands() throws Exception {
+    return fixture.commandController.getCommands(getRequest, ControllerFixture.COMMAND, null)
+        .getCallable().call();
+  }
+
+  @Benchmark
+  public Object getCommandsLegacy() throws Exception {
+    return fixture.legacyCommandController
+        .getCommands(getRequest, ControllerFixture.COMMAND, null)
+        .getCallable().call();
+  }
+
+  @Benchmark
+  public ResponseEntity<Void> getCallback(CallbackState state) {
+    return fixture.updateController.getCallback(state.request, state.alert);
+  }
+
+  @Benchmark
+  public String ping() {
+    return fixture.statusController.ping();
+  }
+
+  @Benchmark
+  public String error() {
+    return fixture.errorController.error(errorRequest, errorResponse);
+  }
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.benchmark;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.edgexfoundry.device.controller.callback.CallbackDispatcher;
+import org.edgexfoundry.device.controller.callback.CallbackQueue;
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandArguments;
+import org.edgexfoundry.device.controller.command.CommandCoalescer;
+import org.edgexfoundry.device.controller.command.CommandFanOut;
+import org.edgexfoundry.device.controller.command.CommandResponseCache;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.command.DeviceCommandRunner;
+import org.edgexfoundry.device.controller.command.DeviceConcurrencyLimiter;
+import org.edgexfoundry.device.controller.command.ProfileDiff;
+import org.edgexfoundry.device.controller.command.ServiceDevices;
+import org.edgexfoundry.device.controller.discovery.DiscoveryJobs;
+import org.edgexfoundry.device.controller.impl.CommandControllerImpl;
+import org.edgexfoundry.device.controller.impl.LocalErrorController;
+import org.edgexfoundry.device.controller.impl.StatusControllerImpl;
+import org.edgexfoundry.device.controller.impl.UpdateControllerImpl;
+import org.edgexfoundry.device.controller.metrics.MetricsRegistry;
+import org.edgexfoundry.device.controller.transform.TransformPolicies;
+import org.edgexfoundry.service.handler.CommandHandler;
+import org.edgexfoundry.service.handler.SchedulerCallbackHandler;
+import org.edgexfoundry.service.handler.UpdateHandler;
+import org.springframework.boot.autoconfigure.web.DefaultErrorAttributes;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Controllers wired to their real collaborators, with the EdgeX handlers replaced by stub-only
+ * mocks that answer immediately, so the benchmarks measure controller overhead rather than
+ * device I/O.
+ */
+final class ControllerFixture {
+
+  static final String DEVICE_ID = "benchmark_device";
+  static final String COMMAND = "benchmark_command";
+  static final String ARGUMENTS = "{\"benchmark_resource\":\"42\"}";
+  static final int DEVICES = 16;
+
+  final CommandControllerImpl commandController = new CommandControllerImpl();
+
+  final CommandControllerImpl legacyCommandController = new CommandControllerImpl();
+
+  final UpdateControllerImpl updateController = new UpdateControllerImpl();
+
+  final StatusControllerImpl statusController = new StatusControllerImpl();
+
+  final LocalErrorController errorController = new LocalErrorController();
+
+  final MetricsRegistry metrics = new MetricsRegistry();
+
+  private final CommandTaskExecutor executor = new CommandTaskExecutor(8, 32, 256);
+
+  private final CommandFanOut fanOut = new CommandFanOut();
+
+  private final CommandAdmission admission = new CommandAdmission();
+
+  private final CommandTimeouts timeouts = new CommandTimeouts();
+
+  private final CommandArguments commandArguments = new CommandArguments();
+
+  private final TransformPolicies transforms = new TransformPolicies();
+
+  private final CallbackDispatcher dispatcher = new CallbackDispatcher(0);
+
+  private final DeviceConcurrencyLimiter limiter = new DeviceConcurrencyLimiter();
+
+  ControllerFixture() {
+    Map<String, String> response = Collections.singletonMap("benchmark_resource", "42");
+    List<String> deviceIds = new ArrayList<>();
+    Map<String, String> responses = new HashMap<>();
+    for (int i = 0; i < DEVICES; i++) {
+      deviceIds.add(DEVICE_ID + i);
+      responses.put(DEVICE_ID + i, "42");
+    }
+
+    CommandHandler command = stub(CommandHandler.class);
+    when(command.getResponse(anyString(), anyString(), any(String.class))).thenReturn(response);
+    when(command.getResponses(anyString(), any(String.class))).thenReturn(responses);
+    ServiceDevices devices = stub(ServiceDevices.class);
+    when(devices.getDeviceIds(anyString())).thenReturn(deviceIds);
+    when(devices.diffProfile(anyString())).thenReturn(ProfileDiff.ALL);
+    UpdateHandler update = stub(UpdateHandler.class);
+    when(update.addDevice(anyString())).thenReturn(true);
+    when(update.updateDevice(anyString())).thenReturn(true);
+    when(update.deleteDevice(anyString())).thenReturn(true);
+    when(update.updateProfile(anyString())).thenReturn(true);
+    when(update.addWatcher(anyString())).thenReturn(true);
+    when(update.updateWatcher(anyString())).thenReturn(true);
+    when(update.removeWatcher(anyString())).thenReturn(true);
+
+    executor.initialize();
+    ReflectionTestUtils.setField(fanOut, "deviceTimeout", 5000L);
+    ReflectionTestUtils.setField(fanOut, "timeout", 30000L);
+    fanOut.initialize();
+
+    ReflectionTestUtils.setField(commandArguments, "devices", devices);
+
+    DeviceCommandRunner runner = new DeviceCommandRunner();
+    ReflectionTestUtils.setField(runner, "command", command);
+    ReflectionTestUtils.setField(runner, "coalescer", new CommandCoalescer());
+    ReflectionTestUtils.setField(runner, "limiter", limiter);
+    ReflectionTestUtils.setField(runner, "cache", new CommandResponseCache());
+    ReflectionTestUtils.setField(runner, "metrics", metrics);
+    ReflectionTestUtils.setField(runner, "commandArguments", commandArguments);
+    ReflectionTestUtils.setField(runner, "transforms", transforms);
+
+    for (CommandControllerImpl controller : new CommandControllerImpl[] {commandController,
+        legacyCommandController}) {
+      ReflectionTestUtils.setField(controller, "command", command);
+      ReflectionTestUtils.setField(controller, "executor", executor);
+      ReflectionTestUtils.setField(controller, "runner", runner);
+      ReflectionTestUtils.setField(controller, "devices", devices);
+      ReflectionTestUtils.setField(controller, "fanOut", fanOut);
+      ReflectionTestUtils.setField(controller, "admission", admission);
+      ReflectionTestUtils.setField(controller, "timeouts", timeouts);
+      ReflectionTestUtils.setField(controller, "commandArguments", commandArguments);
+    }
+    ReflectionTestUtils.setField(commandController, "fanOutEnabled", true);
+
+    ReflectionTestUtils.setField(updateController, "update", update);
+    ReflectionTestUtils.setField(updateController, "callbackHandler",
+        stub(SchedulerCallbackHandler.class));
+    ReflectionTestUtils.setField(updateController, "cache", new CommandResponseCache());
+    ReflectionTestUtils.setField(updateController, "devices", devices);
+    ReflectionTestUtils.setField(updateController, "callbacks", new CallbackQueue());
+    ReflectionTestUtils.setField(updateController, "dispatcher", dispatcher);
+    ReflectionTestUtils.setField(updateController, "metrics", metrics);
+    ReflectionTestUtils.setField(updateController, "transforms", transforms);
+    ReflectionTestUtils.setField(updateController, "limiter", limiter);
+    ReflectionTestUtils.setField(updateController, "discovery", stub(DiscoveryJobs.class));
+
+    ReflectionTestUtils.setField(errorController, "errorAttributes",
+        new DefaultErrorAttributes());
+  }
+
+  void shutdown() {
+    executor.shutdown();
+    fanOut.shutdown();
+    dispatcher.shutdown();
+  }
+
+  // stub-only mocks keep no invocation history, which would otherwise grow without bound
+  private static <T> T stub(Class<T> type) {
+    return mock(type, withSettings().stubOnly());
+  }
+}
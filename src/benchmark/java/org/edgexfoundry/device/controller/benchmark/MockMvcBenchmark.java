@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.edgexfoundry.device.controller.impl.DeviceWebConfig;
+import org.edgexfoundry.device.controller.impl.RejectedCommandAdvice;
+import org.edgexfoundry.device.controller.metrics.MetricsInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotatedBeanDefinitionReader;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * Controller endpoints called through an in-process Spring MVC stack configured like the service,
+ * including request mapping, the registered message converters and async dispatch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MockMvcBenchmark {
+
+  private static final String DEVICE_PATH =
+      "/api/v1/device/" + ControllerFixture.DEVICE_ID + "/" + ControllerFixture.COMMAND;
+
+  private ControllerFixture fixture;
+
+  private MockMvc mvc;
+
+  @State(Scope.Benchmark)
+  public static class CallbackState {
+
+    @Param({"DEVICE", "PROFILE", "PROVISIONWATCHER", "SCHEDULE", "SCHEDULEEVENT"})
+    public String actionType;
+
+    String body;
+
+    @Setup
+    public void setup() {
+      body = "{\"type\":\"" + actionType + "\",\"id\":\"" + ControllerFixture.DEVICE_ID + "\"}";
+    }
+  }
+
+  @Configuration
+  @EnableWebMvc
+  @Import({DeviceWebConfig.class, RejectedCommandAdvice.class, MetricsInterceptor.class})
+  static class WebConfig {
+
+    @Bean
+    static PropertySourcesPlaceholderConfigurer placeholders() {
+      return new PropertySourcesPlaceholderConfigurer();
+    }
+  }
+
+  @Setup
+  public void setup() {
+    fixture = new ControllerFixture();
+    GenericWebApplicationContext context =
+        new GenericWebApplicationContext(new MockServletContext());
+    context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+        Collections.<String, Object>singletonMap("service.callback", "callback")));
+    context.getBeanFactory().registerSingleton("commandController", fixture.commandController);
+    context.getBeanFactory().registerSingleton("updateController", fixture.updateController);
+    context.getBeanFactory().registerSingleton("statusController", fixture.statusController);
+    context.getBeanFactory().registerSingleton("errorController", fixture.errorController);
+    context.getBeanFactory().registerSingleton("metricsRegistry", fixture.metrics);
+    new AnnotatedBeanDefinitionReader(context).register(WebConfig.class);
+    context.refresh();
+    mvc = MockMvcBuilders.webAppContextSetup(context).build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.shutdown();
+  }
+
+  @Benchmark
+  public String getCommand() throws Exception {
+    return async(get(DEVICE_PATH));
+  }
+
+  @Benchmark
+  public String putCommand() throws Exception {
+    return async(put(DEVICE_PATH).content(ControllerFixture.ARGUMENTS));
+  }
+
+  @Benchmark
+  public String getCommands() throws Exception {
+    return async(get("/api/v1/device/all/" + ControllerFixture.COMMAND));
+  }
+
+  @Benchmark
+  public int getCallback(CallbackState state) throws Exception {
+    return mvc.perform(put("/callback").contentType(MediaType.APPLICATION_JSON).content(state.body))
+        .andReturn().getResponse().getStatus();
+  }
+
+  @Benchmark
+  public String ping() throws Exception {
+    return mvc.perform(get("/api/v1/ping")).andReturn().getResponse().getContentAsString();
+  }
+
+  @Benchmark
+  public String error() throws Exception {
+    return mvc
+        .perform(get("/error").requestAttr("javax.servlet.error.status_code", 404)
+            .requestAttr("javax.servlet.error.message", "Not found"))
+        .andReturn().getResponse().getContentAsString();
+  }
+
+  private String async(RequestBuilder request) throws Exception {
+    MvcResult result = mvc.perform(request).andReturn();
+    // asyncDispatch polls for the result every 100ms, so wait for it here instead
+    WebAsyncManager manager = WebAsyncUtils.getAsyncManager(result.getRequest());
+    while (!manager.hasConcurrentResult()) {
+      Thread.yield();
+    }
+    return mvc.perform(asyncDispatch(result)).andReturn().getResponse().getContentAsString();
+  }
+}
@@ -19,11 +19,19 @@
 package org.edgexfoundry.device.controller;
 
 import java.util.Map;
-import java.util.concurrent.Callable;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 public interface CommandController {
-  Callable<Map<String, String>> getCommand(String deviceId, String cmd, String arguments);
+  WebAsyncTask<Map<String, String>> getCommand(HttpServletRequest request, String deviceId,
+      String cmd, String arguments);
+
+  WebAsyncTask<Map<String, String>> getCommands(HttpServletRequest request, String cmd,
+      String arguments);
 
-  Callable<Map<String, String>> getCommands(String cmd, String arguments);
+  ResponseBodyEmitter streamCommands(HttpServletRequest request, String cmd, String arguments);
 
 }
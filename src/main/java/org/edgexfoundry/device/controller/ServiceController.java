@@ -18,10 +18,36 @@
 
 package org.edgexfoundry.device.controller;
 
+import java.util.List;
+import java.util.Map;
+
+import org.edgexfoundry.device.controller.discovery.DiscoveryJob;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 public interface ServiceController {
 
   String setTransformData(boolean transformData);
 
-  String doDiscovery();
+  Map<String, Object> getTransformData();
+
+  String setDeviceTransformData(String deviceId, String transformData);
+
+  String setCommandTransformData(String cmd, String transformData);
+
+  String setDeviceCommandTransformData(String deviceId, String cmd, String transformData);
+
+  Map<String, Object> getTuning();
+
+  Map<String, Object> setTuning(Map<String, Object> settings);
+
+  DiscoveryJob doDiscovery();
+
+  List<DiscoveryJob> getDiscoveries();
+
+  DiscoveryJob getDiscovery(String jobId);
+
+  DiscoveryJob cancelDiscovery(String jobId);
+
+  SseEmitter streamDiscovery();
 
 }
@@ -18,7 +18,12 @@
 
 package org.edgexfoundry.device.controller;
 
+import org.edgexfoundry.device.controller.metrics.ServiceStatus;
+import org.springframework.http.ResponseEntity;
+
 public interface StatusController {
 
   String ping();
+
+  ResponseEntity<ServiceStatus> status();
 }
@@ -21,9 +21,10 @@ package org.edgexfoundry.device.controller;
 import javax.servlet.http.HttpServletRequest;
 
 import org.edgexfoundry.domain.meta.CallbackAlert;
+import org.springframework.http.ResponseEntity;
 
 public interface UpdateController {
 
-  void getCallback(HttpServletRequest request, CallbackAlert data);
+  ResponseEntity<Void> getCallback(HttpServletRequest request, CallbackAlert data);
 
 }
@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.callback;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.edgexfoundry.domain.meta.ActionType;
+import org.edgexfoundry.domain.meta.CallbackAlert;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads the small {"type":..,"id":..} callback payload by scanning the raw bytes in a per-thread
+ * buffer instead of going through Jackson databinding. Anything the scanner does not handle
+ * (escapes, nested values, unknown action types, malformed input) is handed to Jackson so the
+ * accepted input and error responses stay the same.
+ */
+public class CallbackAlertConverter extends AbstractHttpMessageConverter<CallbackAlert> {
+
+  private static final int BUFFER_SIZE = 512;
+  private static final int MAX_RETAINED_BUFFER = 8192;
+
+  private static final byte[] TYPE = "type".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] ID = "id".getBytes(StandardCharsets.US_ASCII);
+
+  private static final ActionType[] TYPES = ActionType.values();
+  private static final byte[][] TYPE_NAMES = new byte[TYPES.length][];
+
+  static {
+    for (int i = 0; i < TYPES.length; i++) {
+      TYPE_NAMES[i] = TYPES[i].name().getBytes(StandardCharsets.US_ASCII);
+    }
+  }
+
+  private static final ObjectMapper mapper =
+      new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+  private static final ThreadLocal<byte[]> buffers =
+      ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+  public CallbackAlertConverter() {
+    super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return CallbackAlert.class == clazz;
+  }
+
+  // responses are left to the Jackson converter, this one is only registered to read callbacks
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected CallbackAlert readInternal(Class<? extends CallbackAlert> clazz,
+      HttpInputMessage inputMessage) throws IOException {
+    byte[] buffer = buffers.get();
+    int length = 0;
+    InputStream body = inputMessage.getBody();
+    for (int read; (read = body.read(buffer, length, buffer.length - length)) != -1;) {
+      length += read;
+      if (length == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+    }
+    if (buffer.length <= MAX_RETAINED_BUFFER) {
+      buffers.set(buffer);
+    }
+    CallbackAlert alert = new Scanner(buffer, length).scan();
+    if (alert != null) {
+      return alert;
+    }
+    try {
+      return mapper.readValue(buffer, 0, length, CallbackAlert.class);
+    } catch (IOException e) {
+      throw new HttpMessageNotReadableException("Could not read callback: " + e.getMessage(), e);
+    }
+  }
+
+  // never called, as canWrite is false
+  @Override
+  protected void writeInternal(CallbackAlert alert, HttpOutputMessage outputMessage) {
+    throw new HttpMessageNotWritableException("Callback alerts are only read by this converter");
+  }
+
+  private static final class Scanner {
+
+    private final byte[] buffer;
+
+    private final int length;
+
+    private int position;
+
+    private Scanner(byte[] buffer, int length) {
+      this.buffer = buffer;
+      this.length = length;
+    }
+
+    // returns null whenever the payload needs the full parser
+    private CallbackAlert scan() {
+      if (!skipTo('{')) {
+        return null;
+      }
+      CallbackAlert alert = new CallbackAlert();
+      if (peek() == '}') {
+        position++;
+        return alert;
+      }
+      while (true) {
+        if (!skipTo('"')) {
+          return null;
+        }
+        int keyStart = position;
+        int keyEnd = endOfString();
+        if (keyEnd < 0 || !skipTo(':')) {
+          return null;
+        }
+        skipWhitespace();
+        if (matches(keyStart, keyEnd, TYPE) || matches(keyStart, keyEnd, ID)) {
+          if (!readProperty(alert, keyEnd - keyStart == ID.length)) {
+            return null;
+          }
+        } else if (!skipValue()) {
+          return null;
+        }
+        skipWhitespace();
+        int next = peek();
+        position++;
+        if (next == '}') {
+          skipWhitespace();
+          return position >= length ? alert : null;
+        }
+        if (next != ',') {
+          return null;
+        }
+      }
+    }
+
+    private boolean readProperty(CallbackAlert alert, boolean id) {
+      if (peek() == 'n') {
+        // an explicit null leaves the property unset, as Jackson would
+        return skipLiteral("null");
+      }
+      if (!skipTo('"')) {
+        return false;
+      }
+      int valueStart = position;
+      int valueEnd = endOfString();
+      if (valueEnd < 0) {
+        return false;
+      }
+      if (id) {
+        alert.setId(new String(buffer, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8));
+        return true;
+      }
+      ActionType type = actionType(valueStart, valueEnd);
+      alert.setType(type);
+      return type != null;
+    }
+
+    private boolean skipValue() {
+      int next = peek();
+      if (next == '"') {
+        position++;
+        while (position < length) {
+          byte b = buffer[position++];
+          if (b == '\\') {
+            position++;
+          } else if (b == '"') {
+            return true;
+          }
+        }
+        return false;
+      }
+      if (next == '{' || next == '[' || next < 0) {
+        return false;
+      }
+      while (position < length && buffer[position] != ',' && buffer[position] != '}') {
+        position++;
+      }
+      return true;
+    }
+
+    // position is just past the opening quote; leaves it past the closing quote
+    private int endOfString() {
+      for (int i = position; i < length; i++) {
+        byte b = buffer[i];
+        if (b == '"') {
+          position = i + 1;
+          return i;
+        }
+        if (b == '\\') {
+          return -1;
+        }
+      }
+      return -1;
+    }
+
+    private boolean skipTo(char expected) {
+      skipWhitespace();
+      if (peek() != expected) {
+        return false;
+      }
+      position++;
+      return true;
+    }
+
+    private boolean skipLiteral(String literal) {
+      if (position + literal.length() > length) {
+        return false;
+      }
+      for (int i = 0; i < literal.length(); i++) {
+        if (buffer[position + i] != literal.charAt(i)) {
+          return false;
+        }
+      }
+      position += literal.length();
+      return true;
+    }
+
+    private void skipWhitespace() {
+      while (position < length && (buffer[position] == ' ' || buffer[position] == '\n'
+          || buffer[position] == '\r' || buffer[position] == '\t')) {
+        position++;
+      }
+    }
+
+    private int peek() {
+      return position < length ? buffer[position] : -1;
+    }
+
+    private boolean matches(int start, int end, byte[] name) {
+      if (end - start != name.length) {
+        return false;
+      }
+      for (int i = 0; i < name.length; i++) {
+        if (buffer[start + i] != name[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private ActionType actionType(int start, int end) {
+      for (int i = 0; i < TYPES.length; i++) {
+        if (matches(start, end, TYPE_NAMES[i])) {
+          return TYPES[i];
+        }
+      }
+      return null;
+    }
+  }
+}
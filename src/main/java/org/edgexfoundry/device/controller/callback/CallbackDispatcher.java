@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.callback;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.edgexfoundry.device.controller.command.VirtualThreads;
+import org.edgexfoundry.domain.meta.CallbackAlert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs callbacks on single threaded stripes chosen by entity, so callbacks for one device, profile
+ * or watcher are applied in arrival order while different entities proceed in parallel. An update
+ * still waiting behind a newer update for the same entity is dropped, since the newer one reloads
+ * the latest state from metadata anyway. In virtual mode each stripe runs on a virtual thread.
+ */
+@Component
+public class CallbackDispatcher {
+
+  private final ExecutorService[] stripes;
+
+  private final ConcurrentMap<String, Long> latestUpdates = new ConcurrentHashMap<>();
+
+  private final AtomicLong sequence = new AtomicLong();
+
+  private final AtomicLong superseded = new AtomicLong();
+
+  public CallbackDispatcher(int stripes) {
+    this(stripes, "pool");
+  }
+
+  @Autowired
+  public CallbackDispatcher(@Value("${service.callback.stripes:0}") int stripes,
+      @Value("${service.callback.executor.mode:${service.command.executor.mode:pool}}")
+      String mode) {
+    int count = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    this.stripes = new ExecutorService[count];
+    ThreadFactory factory =
+        VirtualThreads.isVirtual(mode) ? VirtualThreads.factory("callback-stripe-") : null;
+    for (int i = 0; i < count; i++) {
+      String name = "callback-stripe-" + i;
+      this.stripes[i] = Executors.newSingleThreadExecutor(factory != null ? factory : runnable -> {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  public CompletableFuture<Void> dispatch(CallbackAlert alert, HttpMethod method,
+      Runnable action) {
+    String key = alert.getType() + ":" + alert.getId();
+    ExecutorService stripe = stripes[(key.hashCode() & Integer.MAX_VALUE) % stripes.length];
+    if (method != HttpMethod.PUT) {
+      return CompletableFuture.runAsync(action, stripe);
+    }
+    Long update = sequence.incrementAndGet();
+    latestUpdates.put(key, update);
+    return CompletableFuture.runAsync(() -> {
+      if (latestUpdates.remove(key, update)) {
+        action.run();
+      } else {
+        superseded.incrementAndGet();
+      }
+    }, stripe);
+  }
+
+  public static void await(CompletableFuture<Void> future) {
+    try {
+      future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  public int getStripes() {
+    return stripes.length;
+  }
+
+  public long getSupersededCount() {
+    return superseded.get();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    for (ExecutorService stripe : stripes) {
+      stripe.shutdown();
+    }
+  }
+}
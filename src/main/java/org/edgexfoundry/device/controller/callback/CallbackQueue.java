@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.callback;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import javax.annotation.PreDestroy;
+
+import org.edgexfoundry.domain.meta.ActionType;
+import org.edgexfoundry.domain.meta.CallbackAlert;
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional bounded queue of metadata callbacks applied in batches by a background worker. Within
+ * a batch, redundant callbacks for the same entity are collapsed (for example a POST followed by a
+ * PUT becomes a single POST, a POST followed by a DELETE cancels out) before they are handed to
+ * the {@link CallbackDispatcher}.
+ */
+@Component
+public class CallbackQueue {
+
+  private static final EdgeXLogger logger = EdgeXLoggerFactory.getEdgeXLogger(CallbackQueue.class);
+
+  @Value("${service.callback.async:false}")
+  private boolean enabled;
+
+  @Value("${service.callback.queue.capacity:10000}")
+  private int capacity = 10000;
+
+  @Value("${service.callback.batch.size:500}")
+  private int batchSize = 500;
+
+  @Autowired
+  private CallbackDispatcher dispatcher;
+
+  private BlockingQueue<Callback> queue;
+
+  private Thread worker;
+
+  private final AtomicLong accepted = new AtomicLong();
+
+  private final AtomicLong collapsed = new AtomicLong();
+
+  private final AtomicLong applied = new AtomicLong();
+
+  private final AtomicLong failed = new AtomicLong();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public synchronized void start(BiConsumer<CallbackAlert, HttpMethod> processor) {
+    if (!enabled || worker != null) {
+      return;
+    }
+    queue = new ArrayBlockingQueue<>(capacity);
+    worker = new Thread(() -> run(processor), "callback-worker");
+    worker.setDaemon(true);
+    worker.start();
+    logger.info("Processing metadata callbacks asynchronously, queue capacity " + capacity);
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    if (worker != null) {
+      worker.interrupt();
+      worker = null;
+    }
+  }
+
+  public void submit(CallbackAlert alert, HttpMethod method) {
+    if (!queue.offer(new Callback(alert, method))) {
+      logger.warn("Callback queue full, rejecting " + method + " callback for " + alert.getType()
+          + " " + alert.getId());
+      throw new RejectedExecutionException("Callback queue full");
+    }
+    accepted.incrementAndGet();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public int getBacklog() {
+    return queue == null ? 0 : queue.size();
+  }
+
+  public Map<String, Long> getMetrics() {
+    Map<String, Long> metrics = new LinkedHashMap<>();
+    metrics.put("backlog", (long) getBacklog());
+    metrics.put("acceptedCount", accepted.get());
+    metrics.put("collapsedCount", collapsed.get());
+    metrics.put("appliedCount", applied.get());
+    metrics.put("failedCount", failed.get());
+    return metrics;
+  }
+
+  private void run(BiConsumer<CallbackAlert, HttpMethod> processor) {
+    List<Callback> batch = new ArrayList<>(batchSize);
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        batch.add(queue.take());
+        queue.drainTo(batch, batchSize - 1);
+        apply(collapse(batch), processor);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private Map<String, Pending> collapse(List<Callback> batch) {
+    Map<String, Pending> pending = new LinkedHashMap<>();
+    int sequence = 0;
+    for (Callback callback : batch) {
+      ActionType type = callback.alert.getType();
+      String key = type == ActionType.SCHEDULE || type == ActionType.SCHEDULEEVENT
+          ? Integer.toString(sequence++) : type + ":" + callback.alert.getId();
+      Pending entity = pending.get(key);
+      if (entity == null) {
+        entity = new Pending(callback.alert);
+        pending.put(key, entity);
+      }
+      entity.alert = callback.alert;
+      entity.add(callback.method);
+    }
+    int remaining = 0;
+    for (Pending entity : pending.values()) {
+      remaining += entity.methods.size();
+    }
+    collapsed.addAndGet(batch.size() - remaining);
+    return pending;
+  }
+
+  private void apply(Map<String, Pending> pending,
+      BiConsumer<CallbackAlert, HttpMethod> processor) {
+    List<CompletableFuture<Void>> results = new ArrayList<>();
+    for (Pending entity : pending.values()) {
+      CallbackAlert alert = entity.alert;
+      for (HttpMethod method : entity.methods) {
+        try {
+          results.add(dispatcher.dispatch(alert, method, () -> processor.accept(alert, method))
+              .whenComplete((result, error) -> record(alert, method, error)));
+        } catch (RejectedExecutionException e) {
+          record(alert, method, e);
+        }
+      }
+    }
+    CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[results.size()]))
+        .exceptionally(error -> null).join();
+  }
+
+  private void record(CallbackAlert alert, HttpMethod method, Throwable error) {
+    if (error == null) {
+      applied.incrementAndGet();
+      return;
+    }
+    failed.incrementAndGet();
+    Throwable cause = error.getCause() != null ? error.getCause() : error;
+    logger.error("Unable to apply " + method + " callback for " + alert.getType() + " "
+        + alert.getId() + ": " + cause.getMessage());
+  }
+
+  private static final class Callback {
+
+    private final CallbackAlert alert;
+
+    private final HttpMethod method;
+
+    private Callback(CallbackAlert alert, HttpMethod method) {
+      this.alert = alert;
+      this.method = method;
+    }
+  }
+
+  private static final class Pending {
+
+    private CallbackAlert alert;
+
+    private final Deque<HttpMethod> methods = new ArrayDeque<>();
+
+    private Pending(CallbackAlert alert) {
+      this.alert = alert;
+    }
+
+    private void add(HttpMethod method) {
+      HttpMethod last = methods.peekLast();
+      if (last == null) {
+        methods.add(method);
+      } else if (method == HttpMethod.PUT && (last == HttpMethod.POST || last == HttpMethod.PUT)
+          || method == HttpMethod.DELETE && last == HttpMethod.DELETE) {
+        // already covered by the pending add or update
+        return;
+      } else if (method == HttpMethod.DELETE && last == HttpMethod.PUT) {
+        methods.removeLast();
+        add(method);
+      } else if (method == HttpMethod.DELETE && last == HttpMethod.POST) {
+        // added and removed within the batch
+        methods.removeLast();
+      } else {
+        methods.add(method);
+      }
+    }
+  }
+}
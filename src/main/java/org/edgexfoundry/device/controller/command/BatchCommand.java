@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One entry of a batch command request. Arguments may be given either as a JSON object or as the
+ * already encoded argument string.
+ */
+public class BatchCommand {
+
+  private String id;
+
+  private String deviceId;
+
+  private String cmd;
+
+  private String method;
+
+  private String arguments;
+
+  public BatchCommand() {}
+
+  public BatchCommand(String id, String deviceId, String cmd, String method, String arguments) {
+    this.id = id;
+    this.deviceId = deviceId;
+    this.cmd = cmd;
+    this.method = method;
+    this.arguments = arguments;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  public String getCmd() {
+    return cmd;
+  }
+
+  public void setCmd(String cmd) {
+    this.cmd = cmd;
+  }
+
+  public String getMethod() {
+    return method;
+  }
+
+  public void setMethod(String method) {
+    this.method = method;
+  }
+
+  public String getArguments() {
+    return arguments;
+  }
+
+  public void setArguments(JsonNode arguments) {
+    if (arguments == null || arguments.isNull()) {
+      this.arguments = null;
+    } else {
+      this.arguments = arguments.isTextual() ? arguments.asText() : arguments.toString();
+    }
+  }
+
+  @JsonIgnore
+  public boolean isRead() {
+    return method == null || "GET".equalsIgnoreCase(method);
+  }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.Map;
+
+public class BatchCommandResult {
+
+  private final String id;
+
+  private final String deviceId;
+
+  private final String cmd;
+
+  private final DeviceResult.Status status;
+
+  private final Map<String, String> values;
+
+  private final String error;
+
+  public BatchCommandResult(String id, BatchCommand command, DeviceResult result) {
+    this.id = id;
+    this.deviceId = command.getDeviceId();
+    this.cmd = command.getCmd();
+    this.status = result.getStatus();
+    this.values = result.getValues();
+    this.error = result.getError();
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public String getCmd() {
+    return cmd;
+  }
+
+  public DeviceResult.Status getStatus() {
+    return status;
+  }
+
+  public Map<String, String> getValues() {
+    return values;
+  }
+
+  public String getError() {
+    return error;
+  }
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A command whose caller may give up on it. Cancelling interrupts the worker running the command,
+ * releasing the device connection it holds, or stops it from starting if it is still queued.
+ */
+public class CancellableCommand<T> implements Callable<T> {
+
+  private final Callable<T> command;
+
+  private Thread runner;
+
+  private boolean done;
+
+  // whether cancel interrupted the worker, as opposed to, say, the executor shutting down
+  private boolean interrupted;
+
+  public CancellableCommand(Callable<T> command) {
+    this.command = command;
+  }
+
+  @Override
+  public T call() throws Exception {
+    synchronized (this) {
+      if (done) {
+        throw new CancellationException("Command cancelled before it ran");
+      }
+      runner = Thread.currentThread();
+    }
+    try {
+      return command.call();
+    } finally {
+      synchronized (this) {
+        done = true;
+        runner = null;
+        // a cancel that raced with completion must not interrupt the worker's next task, but an
+        // interrupt from anywhere else is left for the worker to see
+        if (interrupted) {
+          Thread.interrupted();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns false when the command had already finished.
+   */
+  public synchronized boolean cancel() {
+    if (done) {
+      return false;
+    }
+    done = true;
+    if (runner != null) {
+      interrupted = true;
+      runner.interrupt();
+    }
+    return true;
+  }
+}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adaptive limit on commands admitted but not yet answered, queued ones included. The limit grows
+ * by one per round of commands answered within the target latency while it is in use, and is cut
+ * multiplicatively, at most once per target interval, when commands answer late. Reads may only
+ * use a share of the limit, so under pressure reads are shed before actuation.
+ */
+@Component
+public class CommandAdmission {
+
+  private static final EdgeXLogger logger =
+      EdgeXLoggerFactory.getEdgeXLogger(CommandAdmission.class);
+
+  @Value("${service.command.admission.enabled:true}")
+  private boolean enabled = true;
+
+  @Value("${service.command.admission.limit.initial:64}")
+  private int initialLimit = 64;
+
+  @Value("${service.command.admission.limit.min:8}")
+  private int minLimit = 8;
+
+  @Value("${service.command.admission.limit.max:1024}")
+  private int maxLimit = 1024;
+
+  @Value("${service.command.admission.latency:1000}")
+  private long targetLatency = 1000;
+
+  @Value("${service.command.admission.backoff:0.9}")
+  private double backoff = 0.9;
+
+  @Value("${service.command.admission.read.share:0.8}")
+  private double readShare = 0.8;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private final AtomicLong shedReads = new AtomicLong();
+
+  private final AtomicLong shedWrites = new AtomicLong();
+
+  private volatile double limit = -1;
+
+  private long nextDecrease = System.nanoTime();
+
+  public Permit acquire(boolean read) {
+    if (!enabled) {
+      return Permit.UNLIMITED;
+    }
+    double current = getLimit();
+    int allowed = Math.max(1, (int) (read ? current * readShare : current));
+    if (inFlight.incrementAndGet() > allowed) {
+      inFlight.decrementAndGet();
+      (read ? shedReads : shedWrites).incrementAndGet();
+      logger.debug("Shedding " + (read ? "read" : "write") + ", admission limit " + allowed);
+      throw new RejectedExecutionException("Command admission limit reached");
+    }
+    return new Permit(this, System.nanoTime());
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public double getLimit() {
+    double current = limit;
+    return current < 0 ? initialLimit : current;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("limit", (int) getLimit());
+    metrics.put("inFlight", inFlight.get());
+    metrics.put("shedReads", shedReads.get());
+    metrics.put("shedWrites", shedWrites.get());
+    return metrics;
+  }
+
+  private void release(long started, boolean overloaded) {
+    int active = inFlight.getAndDecrement();
+    long now = System.nanoTime();
+    long latency = TimeUnit.NANOSECONDS.toMillis(now - started);
+    synchronized (this) {
+      double current = getLimit();
+      if (overloaded || latency > targetLatency) {
+        if (now - nextDecrease >= 0) {
+          nextDecrease = now + TimeUnit.MILLISECONDS.toNanos(targetLatency);
+          limit = Math.max(minLimit, current * backoff);
+        }
+      } else if (active >= current / 2) {
+        limit = Math.min(maxLimit, current + 1 / current);
+      }
+    }
+  }
+
+  /**
+   * An admitted command; released exactly once when it completes, fails or times out.
+   */
+  public static final class Permit {
+
+    static final Permit UNLIMITED = new Permit(null, 0);
+
+    private final CommandAdmission admission;
+
+    private final long started;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(CommandAdmission admission, long started) {
+      this.admission = admission;
+      this.started = started;
+    }
+
+    public void release() {
+      release(false);
+    }
+
+    // overloaded when the command was rejected further down rather than answered
+    public void release(boolean overloaded) {
+      if (admission != null && released.compareAndSet(false, true)) {
+        admission.release(started, overloaded);
+      }
+    }
+  }
+}
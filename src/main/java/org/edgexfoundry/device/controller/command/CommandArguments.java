@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.edgexfoundry.domain.meta.Command;
+import org.edgexfoundry.domain.meta.Device;
+import org.edgexfoundry.exception.controller.ClientException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Parses command request bodies, a JSON object of parameter values. Parsed arguments are kept in a
+ * small least recently used cache keyed by the body, as actuation clients tend to repeat the same
+ * payloads. With service.command.arguments.strict set, arguments of PUT commands are checked
+ * against the parameter names in the device profile before they reach a device; otherwise bodies
+ * are passed to the command handler as they are, unless a ParsedCommandHandler needs them parsed.
+ */
+@Component
+public class CommandArguments {
+
+  @Autowired
+  private ServiceDevices devices;
+
+  @Value("${service.command.arguments.strict:false}")
+  private boolean strict;
+
+  @Value("${service.command.arguments.cache.size:256}")
+  private int maxEntries = 256;
+
+  private final Map<String, Map<String, String>> parsed =
+      new LinkedHashMap<String, Map<String, String>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Map<String, String>> eldest) {
+          return size() > maxEntries;
+        }
+      };
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  public Map<String, String> parse(String arguments) {
+    if (arguments == null || arguments.trim().isEmpty()) {
+      return Collections.emptyMap();
+    }
+    synchronized (parsed) {
+      Map<String, String> values = parsed.get(arguments);
+      if (values != null) {
+        hits.incrementAndGet();
+        return values;
+      }
+    }
+    misses.incrementAndGet();
+    Map<String, String> values = Collections.unmodifiableMap(read(arguments));
+    synchronized (parsed) {
+      parsed.put(arguments, values);
+    }
+    return values;
+  }
+
+  public Map<String, String> validate(String deviceId, String cmd, String arguments) {
+    Map<String, String> values = parse(arguments);
+    List<String> parameterNames = getParameterNames(deviceId, cmd);
+    if (parameterNames != null && !parameterNames.isEmpty()) {
+      for (String name : values.keySet()) {
+        if (!parameterNames.contains(name)) {
+          throw new ClientException("Unknown parameter " + name + " for command " + cmd);
+        }
+      }
+    }
+    return values;
+  }
+
+  public boolean isStrict() {
+    return strict;
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  // unknown devices and commands are left to the command handler to report
+  private List<String> getParameterNames(String deviceId, String cmd) {
+    Device device = devices.getDevice(deviceId);
+    if (device == null || device.getProfile() == null
+        || device.getProfile().getCommands() == null) {
+      return null;
+    }
+    for (Command command : device.getProfile().getCommands()) {
+      if (cmd.equals(command.getName())) {
+        return command.getPut() == null ? null : command.getPut().getParameterNames();
+      }
+    }
+    return null;
+  }
+
+  private static Map<String, String> read(String arguments) {
+    JsonElement json;
+    try {
+      json = new JsonParser().parse(arguments);
+    } catch (JsonParseException e) {
+      throw new ClientException("Command arguments are not valid JSON: " + e.getMessage());
+    }
+    if (!json.isJsonObject()) {
+      throw new ClientException("Command arguments must be a JSON object");
+    }
+    Map<String, String> values = new LinkedHashMap<>();
+    for (Map.Entry<String, JsonElement> entry : ((JsonObject) json).entrySet()) {
+      JsonElement value = entry.getValue();
+      if (value.isJsonNull()) {
+        values.put(entry.getKey(), null);
+      } else if (value.isJsonPrimitive()) {
+        values.put(entry.getKey(), value.getAsString());
+      } else {
+        // nested objects and arrays are passed on as JSON text
+        values.put(entry.getKey(), value.toString());
+      }
+    }
+    return values;
+  }
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collapses identical in-flight device reads onto a single handler call. The first caller for a
+ * key runs the read, later callers for the same key wait for and share its result.
+ */
+@Component
+public class CommandCoalescer {
+
+  private final ConcurrentMap<CommandKey, CompletableFuture<Map<String, String>>> inFlight =
+      new ConcurrentHashMap<>();
+
+  private final AtomicLong coalesced = new AtomicLong();
+
+  @Value("${service.command.coalesce:true}")
+  private boolean enabled = true;
+
+  public Map<String, String> execute(CommandKey key, Callable<Map<String, String>> read)
+      throws Exception {
+    if (!enabled) {
+      return read.call();
+    }
+    CompletableFuture<Map<String, String>> call = new CompletableFuture<>();
+    CompletableFuture<Map<String, String>> running = inFlight.putIfAbsent(key, call);
+    if (running != null) {
+      coalesced.incrementAndGet();
+      return await(running);
+    }
+    try {
+      Map<String, String> result = read.call();
+      call.complete(result);
+      return result;
+    } catch (Exception e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, call);
+    }
+  }
+
+  public long getCoalescedCount() {
+    return coalesced.get();
+  }
+
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  private Map<String, String> await(CompletableFuture<Map<String, String>> running)
+      throws Exception {
+    try {
+      return running.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs one command against many devices as separate tasks on a dedicated bounded pool, reporting
+ * each device's result as soon as it completes. At most service.command.fanout.parallelism devices
+ * (twice the available processors when 0) are in flight at once. Each device is given
+ * service.command.device.timeout ms to answer and the whole broadcast
+ * service.command.fanout.timeout ms, after which the remaining devices are reported as timed out.
+ */
+@Component
+public class CommandFanOut {
+
+  private static final EdgeXLogger logger = EdgeXLoggerFactory.getEdgeXLogger(CommandFanOut.class);
+
+  @Value("${service.command.fanout.parallelism:0}")
+  private int parallelism;
+
+  @Value("${service.command.fanout.queue.capacity:1024}")
+  private int queueCapacity = 1024;
+
+  @Value("${service.command.device.timeout:5000}")
+  private long deviceTimeout;
+
+  @Value("${service.command.fanout.timeout:30000}")
+  private long timeout;
+
+  private ThreadPoolExecutor pool;
+
+  private final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, task -> {
+    Thread thread = new Thread(task, "device-fanout-timeout");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public interface DeviceCommand {
+    Map<String, String> execute(String deviceId) throws Exception;
+  }
+
+  @PostConstruct
+  public void initialize() {
+    if (parallelism <= 0) {
+      parallelism = Runtime.getRuntime().availableProcessors() * 2;
+    }
+    AtomicInteger threads = new AtomicInteger();
+    pool = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        task -> new Thread(task, "device-fanout-" + threads.incrementAndGet()));
+    pool.allowCoreThreadTimeOut(true);
+    timer.setRemoveOnCancelPolicy(true);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    timer.shutdownNow();
+    pool.shutdownNow();
+  }
+
+  public CompletableFuture<FanOutSummary> execute(List<String> deviceIds, DeviceCommand command,
+      Consumer<DeviceResult> listener) {
+    Dispatch dispatch = new Dispatch(deviceIds, command, listener);
+    dispatch.start();
+    return dispatch.summary;
+  }
+
+  public CompletableFuture<FanOutResult> collect(List<String> deviceIds, DeviceCommand command) {
+    Map<String, String> values = Collections.synchronizedMap(new HashMap<>());
+    return execute(deviceIds, command, result -> {
+      if (result.getValues() != null) {
+        values.putAll(result.getValues());
+      }
+    }).thenApply(summary -> new FanOutResult(values, summary));
+  }
+
+  public static <T> T await(CompletableFuture<T> result) throws Exception {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      result.cancel(true);
+      throw e;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public int getQueueSize() {
+    return pool.getQueue().size();
+  }
+
+  private class Dispatch {
+
+    private final int devices;
+
+    private final Iterator<String> pending;
+
+    private final DeviceCommand command;
+
+    private final Consumer<DeviceResult> listener;
+
+    private final CompletableFuture<FanOutSummary> summary = new CompletableFuture<>();
+
+    private final Map<String, DeviceTask> running = new ConcurrentHashMap<>();
+
+    private final List<String> timedOut = Collections.synchronizedList(new ArrayList<>());
+
+    private final long started = System.currentTimeMillis();
+
+    private ScheduledFuture<?> deadline;
+
+    private boolean expired;
+
+    private int outstanding;
+
+    private int succeeded;
+
+    private int failed;
+
+    private Dispatch(List<String> deviceIds, DeviceCommand command,
+        Consumer<DeviceResult> listener) {
+      this.devices = deviceIds.size();
+      this.pending = deviceIds.iterator();
+      this.command = command;
+      this.listener = listener;
+    }
+
+    private void start() {
+      summary.whenComplete((result, error) -> {
+        if (summary.isCancelled()) {
+          cancel();
+        }
+      });
+      if (devices == 0) {
+        complete();
+        return;
+      }
+      deadline = timer.schedule(this::expire, timeout, TimeUnit.MILLISECONDS);
+      for (int i = 0; i < parallelism; i++) {
+        next();
+      }
+    }
+
+    private void next() {
+      while (true) {
+        String deviceId;
+        synchronized (this) {
+          if (expired || summary.isDone() || !pending.hasNext()) {
+            return;
+          }
+          deviceId = pending.next();
+          outstanding++;
+        }
+        DeviceTask task = new DeviceTask(deviceId);
+        try {
+          running.put(deviceId, task);
+          task.future = pool.submit(task);
+          task.timeout = timer.schedule(task::timeout, deviceTimeout, TimeUnit.MILLISECONDS);
+          return;
+        } catch (RejectedExecutionException e) {
+          // keep the remaining devices moving, this one is reported as failed
+          task.finish(DeviceResult.failed(deviceId, e), false);
+        }
+      }
+    }
+
+    private void expire() {
+      List<String> skipped = new ArrayList<>();
+      synchronized (this) {
+        expired = true;
+        while (pending.hasNext()) {
+          skipped.add(pending.next());
+          outstanding++;
+        }
+      }
+      logger.warn("Broadcast command deadline of " + timeout + "ms reached with "
+          + (running.size() + skipped.size()) + " devices outstanding");
+      for (DeviceTask task : new ArrayList<>(running.values())) {
+        task.timeout();
+      }
+      for (String deviceId : skipped) {
+        new DeviceTask(deviceId).finish(DeviceResult.timedOut(deviceId), false);
+      }
+    }
+
+    private void cancel() {
+      synchronized (this) {
+        expired = true;
+      }
+      for (DeviceTask task : running.values()) {
+        task.cancel();
+      }
+      if (deadline != null) {
+        deadline.cancel(false);
+      }
+    }
+
+    private void complete() {
+      if (deadline != null) {
+        deadline.cancel(false);
+      }
+      summary.complete(new FanOutSummary(devices, succeeded, failed,
+          new ArrayList<>(timedOut), System.currentTimeMillis() - started));
+    }
+
+    private class DeviceTask implements Runnable {
+
+      private final String deviceId;
+
+      private final AtomicBoolean reported = new AtomicBoolean();
+
+      private volatile Future<?> future;
+
+      private volatile ScheduledFuture<?> timeout;
+
+      private DeviceTask(String deviceId) {
+        this.deviceId = deviceId;
+      }
+
+      @Override
+      public void run() {
+        DeviceResult result;
+        try {
+          result = DeviceResult.succeeded(deviceId, command.execute(deviceId));
+        } catch (Exception e) {
+          result = DeviceResult.failed(deviceId, e);
+        }
+        finish(result, true);
+      }
+
+      private void timeout() {
+        if (finish(DeviceResult.timedOut(deviceId), true)) {
+          cancel();
+        }
+      }
+
+      private void cancel() {
+        if (future != null) {
+          future.cancel(true);
+        }
+        if (timeout != null) {
+          timeout.cancel(false);
+        }
+      }
+
+      private boolean finish(DeviceResult result, boolean dispatchNext) {
+        if (!reported.compareAndSet(false, true)) {
+          return false;
+        }
+        running.remove(deviceId);
+        if (timeout != null) {
+          timeout.cancel(false);
+        }
+        // report before counting so every result is delivered before the summary completes
+        if (!summary.isDone()) {
+          try {
+            listener.accept(result);
+          } catch (RuntimeException e) {
+            logger.error("Unable to report result for device " + deviceId + ": "
+                + e.getMessage());
+          }
+        }
+        boolean last;
+        synchronized (Dispatch.this) {
+          if (result.getStatus() == DeviceResult.Status.OK) {
+            succeeded++;
+          } else if (result.getStatus() == DeviceResult.Status.TIMEOUT) {
+            timedOut.add(deviceId);
+          } else {
+            failed++;
+          }
+          outstanding--;
+          last = outstanding == 0 && !pending.hasNext();
+        }
+        if (last) {
+          complete();
+        } else if (dispatchNext) {
+          next();
+        }
+        return true;
+      }
+    }
+  }
+}
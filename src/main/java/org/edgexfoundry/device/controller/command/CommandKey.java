@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.Objects;
+
+public final class CommandKey {
+
+  private final String deviceId;
+
+  private final String command;
+
+  private final String arguments;
+
+  private final int hash;
+
+  public CommandKey(String deviceId, String command, String arguments) {
+    this.deviceId = deviceId;
+    this.command = command;
+    this.arguments = arguments;
+    this.hash = Objects.hash(deviceId, command, arguments);
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public String getCommand() {
+    return command;
+  }
+
+  public String getArguments() {
+    return arguments;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CommandKey)) {
+      return false;
+    }
+    CommandKey other = (CommandKey) obj;
+    return hash == other.hash && Objects.equals(deviceId, other.deviceId)
+        && Objects.equals(command, other.command) && Objects.equals(arguments, other.arguments);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return deviceId + "/" + command;
+  }
+}
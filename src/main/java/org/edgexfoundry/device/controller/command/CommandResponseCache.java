@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional short-lived read-through cache of device read responses, bounded in size with least
+ * recently used eviction. The TTL defaults to service.command.cache.ttl and may be overridden per
+ * command with service.command.cache.ttl.{command}; a TTL of 0 disables caching for the command.
+ */
+@Component
+public class CommandResponseCache {
+
+  private static final EdgeXLogger logger =
+      EdgeXLoggerFactory.getEdgeXLogger(CommandResponseCache.class);
+
+  private static final String TTL_PROPERTY = "service.command.cache.ttl";
+
+  @Autowired(required = false)
+  private Environment environment;
+
+  @Value("${service.command.cache.enabled:false}")
+  private volatile boolean enabled;
+
+  @Value("${" + TTL_PROPERTY + ":1000}")
+  private volatile long defaultTtl;
+
+  @Value("${service.command.cache.size:1024}")
+  private int maxEntries;
+
+  private final Map<CommandKey, Entry> entries = new LinkedHashMap<CommandKey, Entry>(16, 0.75f,
+      true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<CommandKey, Entry> eldest) {
+      return size() > maxEntries;
+    }
+  };
+
+  private final ConcurrentMap<String, Long> commandTtls = new ConcurrentHashMap<>();
+
+  private final AtomicLong generation = new AtomicLong();
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  public Map<String, String> get(CommandKey key, Callable<Map<String, String>> read)
+      throws Exception {
+    long ttl = enabled ? getTtl(key.getCommand()) : 0;
+    if (ttl <= 0) {
+      return read.call();
+    }
+    long now = System.nanoTime();
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null && now - entry.expires < 0) {
+        hits.incrementAndGet();
+        return entry.value;
+      }
+    }
+    misses.incrementAndGet();
+    long loadedGeneration = generation.get();
+    Map<String, String> value = read.call();
+    if (value != null) {
+      synchronized (entries) {
+        // skip results read before an invalidation, they may already be stale
+        if (loadedGeneration == generation.get()) {
+          entries.put(key, new Entry(value, now + TimeUnit.MILLISECONDS.toNanos(ttl)));
+        }
+      }
+    }
+    return value;
+  }
+
+  public void invalidateDevice(String deviceId) {
+    synchronized (entries) {
+      generation.incrementAndGet();
+      Iterator<CommandKey> keys = entries.keySet().iterator();
+      while (keys.hasNext()) {
+        if (keys.next().getDeviceId().equals(deviceId)) {
+          keys.remove();
+        }
+      }
+    }
+    logger.debug("Invalidated cached responses for device: " + deviceId);
+  }
+
+  public void invalidateCommand(String deviceId, String command) {
+    synchronized (entries) {
+      generation.incrementAndGet();
+      Iterator<CommandKey> keys = entries.keySet().iterator();
+      while (keys.hasNext()) {
+        CommandKey key = keys.next();
+        if (key.getDeviceId().equals(deviceId) && key.getCommand().equals(command)) {
+          keys.remove();
+        }
+      }
+    }
+  }
+
+  public void invalidateAll() {
+    synchronized (entries) {
+      generation.incrementAndGet();
+      entries.clear();
+    }
+    logger.debug("Invalidated all cached responses");
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  // entries kept while disabled may be stale, so they are dropped on any change
+  public void setEnabled(boolean enabled) {
+    if (this.enabled != enabled) {
+      invalidateAll();
+      this.enabled = enabled;
+    }
+  }
+
+  public long getDefaultTtl() {
+    return defaultTtl;
+  }
+
+  public void setDefaultTtl(long defaultTtl) {
+    this.defaultTtl = defaultTtl;
+    commandTtls.clear();
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  private long getTtl(String command) {
+    Long ttl = commandTtls.get(command);
+    if (ttl == null) {
+      ttl = environment == null ? defaultTtl
+          : environment.getProperty(TTL_PROPERTY + "." + command, Long.class, defaultTtl);
+      commandTtls.putIfAbsent(command, ttl);
+    }
+    return ttl;
+  }
+
+  private static final class Entry {
+
+    private final Map<String, String> value;
+
+    private final long expires;
+
+    private Entry(Map<String, String> value, long expires) {
+      this.value = value;
+      this.expires = expires;
+    }
+  }
+}
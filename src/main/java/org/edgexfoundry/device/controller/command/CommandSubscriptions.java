@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shares one poller between all subscribers to the same device command. The poller reads at the
+ * shortest interval any subscriber asked for (no shorter than service.subscription.interval.min),
+ * through the read cache, on the command executor. Each subscriber samples the readings at its own
+ * interval and is only sent the values that changed since it was last sent them; numeric values
+ * must move by more than the subscriber's deadband to count as changed.
+ */
+@Component
+public class CommandSubscriptions {
+
+  private static final EdgeXLogger logger =
+      EdgeXLoggerFactory.getEdgeXLogger(CommandSubscriptions.class);
+
+  @Autowired
+  private DeviceCommandRunner runner;
+
+  @Autowired
+  private CommandTaskExecutor executor;
+
+  @Value("${service.subscription.interval.min:1000}")
+  private long minInterval = 1000;
+
+  @Value("${service.subscription.max:1000}")
+  private int maxSubscriptions = 1000;
+
+  private final ConcurrentMap<CommandKey, Poller> pollers = new ConcurrentHashMap<>();
+
+  private final AtomicInteger subscriptions = new AtomicInteger();
+
+  private final AtomicLong polls = new AtomicLong();
+
+  private final AtomicLong pushes = new AtomicLong();
+
+  private final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, task -> {
+    Thread thread = new Thread(task, "device-subscription-timer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public interface Listener {
+    void changed(Map<String, String> values) throws Exception;
+  }
+
+  public CommandSubscriptions() {
+    timer.setRemoveOnCancelPolicy(true);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    timer.shutdownNow();
+  }
+
+  public Subscription subscribe(String deviceId, String cmd, long interval, double deadband,
+      Listener listener) {
+    if (subscriptions.incrementAndGet() > maxSubscriptions) {
+      subscriptions.decrementAndGet();
+      throw new RejectedExecutionException("Subscription limit reached");
+    }
+    CommandKey key = new CommandKey(deviceId, cmd, null);
+    Subscription subscription =
+        new Subscription(key, Math.max(interval, minInterval), deadband, listener);
+    pollers.compute(key, (k, poller) -> {
+      Poller current = poller == null ? new Poller(k) : poller;
+      current.add(subscription);
+      return current;
+    });
+    return subscription;
+  }
+
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("pollers", pollers.size());
+    metrics.put("subscribers", subscriptions.get());
+    metrics.put("pollCount", polls.get());
+    metrics.put("pushCount", pushes.get());
+    return metrics;
+  }
+
+  private void unsubscribe(Subscription subscription) {
+    pollers.computeIfPresent(subscription.key,
+        (key, poller) -> poller.remove(subscription) ? null : poller);
+    subscriptions.decrementAndGet();
+  }
+
+  // add and remove run inside the map's compute for the key, so they never race each other
+  private final class Poller {
+
+    private final CommandKey key;
+
+    private final List<Subscription> subscribers = new CopyOnWriteArrayList<>();
+
+    private final AtomicBoolean reading = new AtomicBoolean();
+
+    private volatile Map<String, String> latest;
+
+    private ScheduledFuture<?> schedule;
+
+    private volatile long interval;
+
+    private Poller(CommandKey key) {
+      this.key = key;
+    }
+
+    private void add(Subscription subscription) {
+      subscribers.add(subscription);
+      reschedule();
+      Map<String, String> values = latest;
+      if (values != null) {
+        try {
+          executor.execute(() -> subscription.offer(values, System.nanoTime(), interval));
+        } catch (RejectedExecutionException e) {
+          // the subscriber gets the next poll instead
+        }
+      }
+    }
+
+    private boolean remove(Subscription subscription) {
+      subscribers.remove(subscription);
+      if (subscribers.isEmpty()) {
+        schedule.cancel(false);
+        return true;
+      }
+      reschedule();
+      return false;
+    }
+
+    private void reschedule() {
+      long shortest = Long.MAX_VALUE;
+      for (Subscription subscription : subscribers) {
+        shortest = Math.min(shortest, subscription.interval);
+      }
+      if (schedule != null) {
+        if (shortest == interval) {
+          return;
+        }
+        schedule.cancel(false);
+      }
+      interval = shortest;
+      schedule = timer.scheduleAtFixedRate(this::tick, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // a read still in progress from the previous tick is not overlapped
+    private void tick() {
+      if (!reading.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        executor.execute(this::poll);
+      } catch (RejectedExecutionException e) {
+        reading.set(false);
+        logger.debug("Command executor saturated, skipping poll of " + key.getCommand()
+            + " on device " + key.getDeviceId());
+      }
+    }
+
+    private void poll() {
+      try {
+        polls.incrementAndGet();
+        Map<String, String> values = runner.read(key.getDeviceId(), key.getCommand(), null);
+        if (values != null) {
+          latest = values;
+          long now = System.nanoTime();
+          for (Subscription subscription : subscribers) {
+            subscription.offer(values, now, interval);
+          }
+        }
+      } catch (Exception e) {
+        logger.warn("Subscription poll of " + key.getCommand() + " on device "
+            + key.getDeviceId() + " failed: " + e.getMessage());
+      } finally {
+        reading.set(false);
+      }
+    }
+  }
+
+  public class Subscription {
+
+    private final CommandKey key;
+
+    private final long interval;
+
+    private final double deadband;
+
+    private final Listener listener;
+
+    private final Map<String, String> sent = new HashMap<>();
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    private long sampled;
+
+    private Subscription(CommandKey key, long interval, double deadband, Listener listener) {
+      this.key = key;
+      this.interval = interval;
+      this.deadband = deadband;
+      this.listener = listener;
+    }
+
+    public void cancel() {
+      if (cancelled.compareAndSet(false, true)) {
+        unsubscribe(this);
+      }
+    }
+
+    // subscribers slower than the poller sample every few polls, allowing for timer jitter
+    private synchronized void offer(Map<String, String> values, long now, long pollInterval) {
+      if (cancelled.get() || sampled != 0 && interval > pollInterval
+          && TimeUnit.NANOSECONDS.toMillis(now - sampled) + pollInterval / 2 < interval) {
+        return;
+      }
+      sampled = now;
+      Map<String, String> changed = new LinkedHashMap<>();
+      for (Map.Entry<String, String> entry : values.entrySet()) {
+        if (!sent.containsKey(entry.getKey())
+            || isChanged(sent.get(entry.getKey()), entry.getValue())) {
+          changed.put(entry.getKey(), entry.getValue());
+        }
+      }
+      if (changed.isEmpty()) {
+        return;
+      }
+      try {
+        listener.changed(changed);
+        sent.putAll(changed);
+        pushes.incrementAndGet();
+      } catch (Exception e) {
+        logger.debug("Subscriber to " + key.getCommand() + " on device " + key.getDeviceId()
+            + " gone: " + e.getMessage());
+        cancel();
+      }
+    }
+
+    private boolean isChanged(String previous, String current) {
+      if (deadband > 0 && previous != null && current != null) {
+        try {
+          return Math.abs(Double.parseDouble(current) - Double.parseDouble(previous)) > deadband;
+        } catch (NumberFormatException e) {
+          // not numeric, any difference counts
+        }
+      }
+      return !Objects.equals(previous, current);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded pool and queue used to run device commands instead of the unbounded default MVC async
+ * executor. Work beyond the queue capacity is rejected rather than spawning more threads. In
+ * virtual mode the pool threads are virtual threads, so up to service.command.virtual.max
+ * blocking commands run concurrently with the same queueing, rejection and metrics as the pool.
+ */
+@Component
+public class CommandTaskExecutor extends ThreadPoolTaskExecutor {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final EdgeXLogger logger =
+      EdgeXLoggerFactory.getEdgeXLogger(CommandTaskExecutor.class);
+
+  private final AtomicLong rejected = new AtomicLong();
+
+  private final int queueCapacity;
+
+  private final boolean virtual;
+
+  public CommandTaskExecutor(int poolSize, int maxPoolSize, int queueCapacity) {
+    this(poolSize, maxPoolSize, queueCapacity, "pool", 0);
+  }
+
+  @Autowired
+  public CommandTaskExecutor(@Value("${service.command.pool.size:8}") int poolSize,
+      @Value("${service.command.pool.max:32}") int maxPoolSize,
+      @Value("${service.command.queue.capacity:256}") int queueCapacity,
+      @Value("${service.command.executor.mode:pool}") String mode,
+      @Value("${service.command.virtual.max:10000}") int virtualMax) {
+    ThreadFactory factory =
+        VirtualThreads.isVirtual(mode) ? VirtualThreads.factory("device-command-") : null;
+    virtual = factory != null;
+    if (virtual) {
+      // idle virtual threads are cheap to recreate, so they are not kept around
+      setThreadFactory(factory);
+      setCorePoolSize(virtualMax);
+      setMaxPoolSize(virtualMax);
+      setKeepAliveSeconds(1);
+      setAllowCoreThreadTimeOut(true);
+      logger.info("Running device commands on up to " + virtualMax + " virtual threads");
+    } else {
+      setCorePoolSize(poolSize);
+      setMaxPoolSize(maxPoolSize);
+    }
+    setQueueCapacity(queueCapacity);
+    this.queueCapacity = queueCapacity;
+    setThreadNamePrefix("device-command-");
+    setRejectedExecutionHandler(new RejectedExecutionHandler() {
+      @Override
+      public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        rejected.incrementAndGet();
+        logger.warn("Command executor saturated, rejecting command. Active: "
+            + executor.getActiveCount() + " queued: " + executor.getQueue().size());
+        throw new RejectedExecutionException("Command executor saturated");
+      }
+    });
+  }
+
+  // grows the maximum first and shrinks it last, so the core size never exceeds it
+  public synchronized void resize(int poolSize, int maxPoolSize) {
+    if (poolSize > getMaxPoolSize()) {
+      setMaxPoolSize(maxPoolSize);
+      setCorePoolSize(poolSize);
+    } else {
+      setCorePoolSize(poolSize);
+      setMaxPoolSize(maxPoolSize);
+    }
+    logger.info("Resized command executor to " + poolSize + " core, " + maxPoolSize + " max");
+  }
+
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  public long getRejectedCount() {
+    return rejected.get();
+  }
+
+  public int getQueueSize() {
+    return getThreadPoolExecutor().getQueue().size();
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public Map<String, Number> getMetrics() {
+    ThreadPoolExecutor pool = getThreadPoolExecutor();
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("poolSize", pool.getPoolSize());
+    metrics.put("maxPoolSize", pool.getMaximumPoolSize());
+    metrics.put("activeCount", pool.getActiveCount());
+    metrics.put("queueSize", pool.getQueue().size());
+    metrics.put("queueRemaining", pool.getQueue().remainingCapacity());
+    metrics.put("completedCount", pool.getCompletedTaskCount());
+    metrics.put("rejectedCount", rejected.get());
+    metrics.put("virtual", virtual ? 1 : 0);
+    return metrics;
+  }
+}
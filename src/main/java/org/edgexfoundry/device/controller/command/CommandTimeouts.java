@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Time allowed for a command request to be answered. Defaults to service.command.timeout and may
+ * be overridden per command with service.command.timeout.{command}; 0 leaves the request to the
+ * container's async timeout. Broadcasts report partial results at service.command.fanout.timeout,
+ * which should be the shorter of the two.
+ */
+@Component
+public class CommandTimeouts {
+
+  private static final String TIMEOUT_PROPERTY = "service.command.timeout";
+
+  @Autowired(required = false)
+  private Environment environment;
+
+  @Value("${" + TIMEOUT_PROPERTY + ":60000}")
+  private volatile long defaultTimeout = 60000;
+
+  private final ConcurrentMap<String, Long> commandTimeouts = new ConcurrentHashMap<>();
+
+  private final AtomicLong timedOut = new AtomicLong();
+
+  private final AtomicLong cancelled = new AtomicLong();
+
+  public Long getTimeout(String command) {
+    Long timeout = commandTimeouts.get(command);
+    if (timeout == null) {
+      timeout = environment == null ? defaultTimeout
+          : environment.getProperty(TIMEOUT_PROPERTY + "." + command, Long.class, defaultTimeout);
+      commandTimeouts.putIfAbsent(command, timeout);
+    }
+    return timeout > 0 ? timeout : null;
+  }
+
+  public long getDefaultTimeout() {
+    return defaultTimeout;
+  }
+
+  // per command overrides are re-read against the new default
+  public void setDefaultTimeout(long defaultTimeout) {
+    this.defaultTimeout = defaultTimeout;
+    commandTimeouts.clear();
+  }
+
+  public void timedOut() {
+    timedOut.incrementAndGet();
+  }
+
+  public void cancelled() {
+    cancelled.incrementAndGet();
+  }
+
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("timedOutCount", timedOut.get());
+    metrics.put("cancelledCount", cancelled.get());
+    return metrics;
+  }
+}
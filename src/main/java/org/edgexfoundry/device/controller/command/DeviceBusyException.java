@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A command rejected because its device is at its concurrency limit. Unlike other rejections it
+ * says nothing about the load on the service as a whole.
+ */
+public class DeviceBusyException extends RejectedExecutionException {
+
+  private static final long serialVersionUID = 1L;
+
+  public DeviceBusyException(String deviceId) {
+    super("Device " + deviceId + " busy");
+  }
+}
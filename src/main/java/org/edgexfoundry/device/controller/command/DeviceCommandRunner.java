@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.edgexfoundry.device.controller.metrics.MetricsRegistry;
+import org.edgexfoundry.device.controller.metrics.Series;
+import org.edgexfoundry.device.controller.transform.TransformPolicies;
+import org.edgexfoundry.service.handler.CommandHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends a single command to a device. Reads go through the response cache and are coalesced with
+ * identical in-flight reads; every command is subject to the per-device concurrency limit. Time
+ * spent in the handler is recorded per device and per command. Commands submitted asynchronously
+ * go straight to the AsyncCommandHandler when the service provides one, bypassing the cache and
+ * device limit, and otherwise run the blocking path on the given executor. A ParsedCommandHandler,
+ * when present, is handed the parsed arguments in place of the CommandHandler. With strict argument
+ * validation on, arguments of writes are checked against the device profile in the task running
+ * the command. Responses pass through the transform policies before they are cached or returned.
+ */
+@Component
+public class DeviceCommandRunner {
+
+  @Autowired
+  private CommandHandler command;
+
+  @Autowired
+  private CommandCoalescer coalescer;
+
+  @Autowired
+  private DeviceConcurrencyLimiter limiter;
+
+  @Autowired
+  private CommandResponseCache cache;
+
+  @Autowired
+  private MetricsRegistry metrics;
+
+  @Autowired(required = false)
+  private AsyncCommandHandler asyncCommand;
+
+  @Autowired(required = false)
+  private ParsedCommandHandler parsedCommand;
+
+  @Autowired
+  private CommandArguments commandArguments;
+
+  @Autowired
+  private TransformPolicies transforms;
+
+  public Map<String, String> run(String deviceId, String cmd, String arguments, boolean read)
+      throws Exception {
+    if (read) {
+      return read(deviceId, cmd, arguments);
+    }
+    validate(deviceId, cmd, arguments);
+    return execute(deviceId, cmd, arguments);
+  }
+
+  public CompletableFuture<Map<String, String>> submit(String deviceId, String cmd,
+      String arguments, boolean read, Executor executor) {
+    if (asyncCommand == null) {
+      CompletableFuture<Map<String, String>> result = new CompletableFuture<>();
+      CancellableCommand<Map<String, String>> call =
+          new CancellableCommand<>(() -> run(deviceId, cmd, arguments, read));
+      executor.execute(() -> {
+        try {
+          result.complete(call.call());
+        } catch (Exception e) {
+          result.completeExceptionally(e);
+        }
+      });
+      result.whenComplete((value, error) -> {
+        if (result.isCancelled()) {
+          call.cancel();
+        }
+      });
+      return result;
+    }
+    if (read || !commandArguments.isStrict()) {
+      return respond(deviceId, cmd, arguments);
+    }
+    // validation may look up the profile, so it runs on the executor rather than the caller
+    CompletableFuture<Map<String, String>> result = new CompletableFuture<>();
+    executor.execute(() -> {
+      try {
+        validate(deviceId, cmd, arguments);
+      } catch (RuntimeException e) {
+        result.completeExceptionally(e);
+        return;
+      }
+      if (result.isDone()) {
+        return;
+      }
+      CompletableFuture<Map<String, String>> response = respond(deviceId, cmd, arguments);
+      response.whenComplete((value, error) -> {
+        if (error == null) {
+          result.complete(value);
+        } else {
+          result.completeExceptionally(
+              error instanceof CompletionException ? error.getCause() : error);
+        }
+      });
+      result.whenComplete((value, error) -> {
+        if (result.isCancelled()) {
+          response.cancel(true);
+        }
+      });
+    });
+    return result;
+  }
+
+  public Map<String, String> read(String deviceId, String cmd, String arguments)
+      throws Exception {
+    CommandKey key = new CommandKey(deviceId, cmd, arguments);
+    return cache.get(key, () -> coalescer.execute(key, () -> execute(deviceId, cmd, arguments)));
+  }
+
+  public Map<String, String> execute(String deviceId, String cmd, String arguments)
+      throws Exception {
+    return transforms.apply(deviceId, cmd, limiter.execute(deviceId, () -> {
+      Series device = metrics.begin(MetricsRegistry.DEVICE, deviceId);
+      Series command = metrics.begin(MetricsRegistry.COMMAND, cmd);
+      long start = System.nanoTime();
+      RuntimeException error = null;
+      try {
+        if (parsedCommand != null) {
+          return parsedCommand.getResponse(deviceId, cmd, commandArguments.parse(arguments));
+        }
+        return this.command.getResponse(deviceId, cmd, arguments);
+      } catch (RuntimeException e) {
+        error = e;
+        throw e;
+      } finally {
+        long elapsed = System.nanoTime() - start;
+        device.end(elapsed, error);
+        command.end(elapsed, error);
+      }
+    }));
+  }
+
+  private CompletableFuture<Map<String, String>> respond(String deviceId, String cmd,
+      String arguments) {
+    Series device = metrics.begin(MetricsRegistry.DEVICE, deviceId);
+    Series command = metrics.begin(MetricsRegistry.COMMAND, cmd);
+    long start = System.nanoTime();
+    CompletableFuture<Map<String, String>> result;
+    try {
+      result = asyncCommand.getResponse(deviceId, cmd, arguments);
+    } catch (RuntimeException e) {
+      result = new CompletableFuture<>();
+      result.completeExceptionally(e);
+    }
+    result.whenComplete((value, error) -> {
+      long elapsed = System.nanoTime() - start;
+      Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+      device.end(elapsed, cause);
+      command.end(elapsed, cause);
+    });
+    if (!transforms.isEnabled()) {
+      return result;
+    }
+    CompletableFuture<Map<String, String>> response = result;
+    CompletableFuture<Map<String, String>> transformed =
+        response.thenApply(values -> transforms.apply(deviceId, cmd, values));
+    transformed.whenComplete((value, error) -> {
+      if (transformed.isCancelled()) {
+        response.cancel(true);
+      }
+    });
+    return transformed;
+  }
+
+  private void validate(String deviceId, String cmd, String arguments) {
+    if (commandArguments.isStrict()) {
+      commandArguments.validate(deviceId, cmd, arguments);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps the number of commands concurrently sent to any one device. A limit of 0 leaves devices
+ * unlimited. A changed limit resizes each device's permits in place, so commands already running
+ * still count against the new limit.
+ */
+@Component
+public class DeviceConcurrencyLimiter {
+
+  private static final EdgeXLogger logger =
+      EdgeXLoggerFactory.getEdgeXLogger(DeviceConcurrencyLimiter.class);
+
+  private final ConcurrentMap<String, DevicePermits> permits = new ConcurrentHashMap<>();
+
+  @Value("${service.command.device.concurrency:0}")
+  private volatile int limit;
+
+  @Value("${service.command.device.wait:5000}")
+  private volatile long maxWait;
+
+  public Map<String, String> execute(String deviceId, Callable<Map<String, String>> command)
+      throws Exception {
+    int current = limit;
+    if (current <= 0) {
+      return command.call();
+    }
+    DevicePermits semaphore =
+        permits.computeIfAbsent(deviceId, id -> new DevicePermits(current));
+    semaphore.resize(current);
+    if (!semaphore.tryAcquire(maxWait, TimeUnit.MILLISECONDS)) {
+      logger.warn("Device " + deviceId + " busy, rejecting command after waiting " + maxWait
+          + "ms");
+      throw new DeviceBusyException(deviceId);
+    }
+    try {
+      return command.call();
+    } finally {
+      semaphore.release();
+    }
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public void setLimit(int limit) {
+    this.limit = limit;
+    if (limit > 0) {
+      for (DevicePermits semaphore : permits.values()) {
+        semaphore.resize(limit);
+      }
+    }
+  }
+
+  // a deleted device's commands keep releasing to the permits they acquired
+  public void remove(String deviceId) {
+    permits.remove(deviceId);
+  }
+
+  int getDevices() {
+    return permits.size();
+  }
+
+  public long getMaxWait() {
+    return maxWait;
+  }
+
+  public void setMaxWait(long maxWait) {
+    this.maxWait = maxWait;
+  }
+
+  @SuppressWarnings("serial")
+  private static final class DevicePermits extends Semaphore {
+
+    private volatile int size;
+
+    private DevicePermits(int size) {
+      super(size, true);
+      this.size = size;
+    }
+
+    // permits in use stay in use, a shrunk semaphore goes negative until they are released
+    private void resize(int limit) {
+      if (limit == size) {
+        return;
+      }
+      synchronized (this) {
+        if (limit > size) {
+          release(limit - size);
+        } else if (limit < size) {
+          reducePermits(size - limit);
+        }
+        size = limit;
+      }
+    }
+  }
+}
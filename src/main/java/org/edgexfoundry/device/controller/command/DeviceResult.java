@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.Map;
+
+public class DeviceResult {
+
+  public enum Status {
+    OK, FAILED, TIMEOUT
+  }
+
+  private final String device;
+
+  private final Status status;
+
+  private final Map<String, String> values;
+
+  private final String error;
+
+  private DeviceResult(String device, Status status, Map<String, String> values, String error) {
+    this.device = device;
+    this.status = status;
+    this.values = values;
+    this.error = error;
+  }
+
+  public static DeviceResult succeeded(String device, Map<String, String> values) {
+    return new DeviceResult(device, Status.OK, values, null);
+  }
+
+  public static DeviceResult failed(String device, Exception exception) {
+    String error = exception.getMessage() == null ? exception.getClass().getSimpleName()
+        : exception.getMessage();
+    return new DeviceResult(device, Status.FAILED, null, error);
+  }
+
+  public static DeviceResult timedOut(String device) {
+    return new DeviceResult(device, Status.TIMEOUT, null, "Device command timed out");
+  }
+
+  public String getDevice() {
+    return device;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public Map<String, String> getValues() {
+    return values;
+  }
+
+  public String getError() {
+    return error;
+  }
+}
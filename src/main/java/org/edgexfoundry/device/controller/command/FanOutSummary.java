@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.List;
+
+public class FanOutSummary {
+
+  private final int devices;
+
+  private final int succeeded;
+
+  private final int failed;
+
+  private final List<String> timedOut;
+
+  private final long elapsed;
+
+  public FanOutSummary(int devices, int succeeded, int failed, List<String> timedOut,
+      long elapsed) {
+    this.devices = devices;
+    this.succeeded = succeeded;
+    this.failed = failed;
+    this.timedOut = timedOut;
+    this.elapsed = elapsed;
+  }
+
+  public int getDevices() {
+    return devices;
+  }
+
+  public int getSucceeded() {
+    return succeeded;
+  }
+
+  public int getFailed() {
+    return failed;
+  }
+
+  public List<String> getTimedOut() {
+    return timedOut;
+  }
+
+  public long getElapsed() {
+    return elapsed;
+  }
+}
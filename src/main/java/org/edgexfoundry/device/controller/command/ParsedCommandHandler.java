@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.Map;
+
+/**
+ * Optional counterpart of CommandHandler for device services that want command arguments already
+ * parsed. When a bean is present, commands are sent to it with the request body parsed once into
+ * parameter name and value pairs. A body that is not a JSON object is rejected as a bad request.
+ */
+public interface ParsedCommandHandler {
+  Map<String, String> getResponse(String deviceId, String cmd, Map<String, String> arguments);
+
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.edgexfoundry.domain.meta.Command;
+import org.edgexfoundry.domain.meta.DeviceObject;
+import org.edgexfoundry.domain.meta.DeviceProfile;
+import org.edgexfoundry.domain.meta.ProfileResource;
+import org.edgexfoundry.domain.meta.ResourceOperation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The commands and device resources that differ between two versions of a device profile, so a
+ * profile update only invalidates what it affects. A command is affected when its definition or
+ * its resource operations change, or when it reads or writes a device resource that changed.
+ * Bookkeeping fields such as modification times are ignored.
+ */
+public final class ProfileDiff {
+
+  // an unknown difference, when either version of the profile is not available
+  public static final ProfileDiff ALL = new ProfileDiff(true, Collections.<String>emptySet(),
+      Collections.<String>emptySet(), Collections.<String>emptyList(), null);
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private static final Set<String> IGNORED =
+      new HashSet<>(Arrays.asList("created", "modified", "origin"));
+
+  private final boolean all;
+
+  private final Set<String> commands;
+
+  private final Set<String> resources;
+
+  private final List<String> deviceIds;
+
+  private final DeviceProfile profile;
+
+  private ProfileDiff(boolean all, Set<String> commands, Set<String> resources,
+      List<String> deviceIds, DeviceProfile profile) {
+    this.all = all;
+    this.commands = commands;
+    this.resources = resources;
+    this.deviceIds = deviceIds;
+    this.profile = profile;
+  }
+
+  // an unknown difference, keeping the updated version so later updates can be compared with it
+  public static ProfileDiff all(DeviceProfile updated) {
+    return updated == null ? ALL : new ProfileDiff(true, Collections.<String>emptySet(),
+        Collections.<String>emptySet(), Collections.<String>emptyList(), updated);
+  }
+
+  public static ProfileDiff compare(DeviceProfile previous, DeviceProfile updated,
+      List<String> deviceIds) {
+    if (previous == null || updated == null) {
+      return ALL;
+    }
+    Set<String> resources =
+        changed(previous.getDeviceResources(), updated.getDeviceResources(), DeviceObject::getName);
+    Set<String> commands =
+        changed(previous.getCommands(), updated.getCommands(), Command::getName);
+    commands.addAll(
+        changed(previous.getResources(), updated.getResources(), ProfileResource::getName));
+    if (!resources.isEmpty()) {
+      addUsing(previous.getResources(), resources, commands);
+      addUsing(updated.getResources(), resources, commands);
+    }
+    return new ProfileDiff(false, commands, resources, deviceIds, updated);
+  }
+
+  public boolean isAll() {
+    return all;
+  }
+
+  public boolean isEmpty() {
+    return !all && commands.isEmpty() && resources.isEmpty();
+  }
+
+  public Set<String> getCommands() {
+    return commands;
+  }
+
+  public Set<String> getResources() {
+    return resources;
+  }
+
+  public List<String> getDeviceIds() {
+    return deviceIds;
+  }
+
+  // the updated version, or null when it could not be loaded
+  public DeviceProfile getProfile() {
+    return profile;
+  }
+
+  @Override
+  public String toString() {
+    return all ? "all" : "commands " + commands + ", resources " + resources;
+  }
+
+  private static <T> Set<String> changed(List<T> previous, List<T> updated,
+      Function<T, String> name) {
+    Map<String, JsonNode> before = index(previous, name);
+    Map<String, JsonNode> after = index(updated, name);
+    Set<String> changed = new HashSet<>();
+    for (Map.Entry<String, JsonNode> entry : before.entrySet()) {
+      if (!Objects.equals(entry.getValue(), after.get(entry.getKey()))) {
+        changed.add(entry.getKey());
+      }
+    }
+    for (String key : after.keySet()) {
+      if (!before.containsKey(key)) {
+        changed.add(key);
+      }
+    }
+    return changed;
+  }
+
+  private static <T> Map<String, JsonNode> index(List<T> items, Function<T, String> name) {
+    Map<String, JsonNode> index = new HashMap<>();
+    if (items != null) {
+      for (T item : items) {
+        if (item != null) {
+          index.put(name.apply(item), strip(mapper.valueToTree(item)));
+        }
+      }
+    }
+    return index;
+  }
+
+  private static JsonNode strip(JsonNode node) {
+    if (node instanceof ObjectNode) {
+      ((ObjectNode) node).remove(IGNORED);
+    }
+    Iterator<JsonNode> children = node.elements();
+    while (children.hasNext()) {
+      strip(children.next());
+    }
+    return node;
+  }
+
+  // commands, by their profile resource, whose operations use any of the changed device resources
+  private static void addUsing(List<ProfileResource> profileResources, Set<String> resources,
+      Set<String> commands) {
+    if (profileResources == null) {
+      return;
+    }
+    for (ProfileResource profileResource : profileResources) {
+      if (uses(profileResource.getGet(), resources) || uses(profileResource.getSet(), resources)) {
+        commands.add(profileResource.getName());
+      }
+    }
+  }
+
+  private static boolean uses(List<ResourceOperation> operations, Set<String> resources) {
+    if (operations != null) {
+      for (ResourceOperation operation : operations) {
+        if (resources.contains(operation.getObject())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
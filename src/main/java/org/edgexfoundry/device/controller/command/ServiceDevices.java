@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+
+import org.edgexfoundry.controller.DeviceClient;
+import org.edgexfoundry.controller.DeviceProfileClient;
+import org.edgexfoundry.domain.meta.Command;
+import org.edgexfoundry.domain.meta.Device;
+import org.edgexfoundry.domain.meta.DeviceProfile;
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Devices owned by this service, loaded from metadata and refreshed periodically or when a
+ * metadata callback changes them. The profiles seen by the first load are kept apart from the
+ * refreshed devices as the versions the handler applied, and replaced only once an update to them
+ * has been applied, so a refresh that already picked up a new version cannot hide the change. A
+ * profile without such a version is treated as entirely changed.
+ */
+@Component
+public class ServiceDevices {
+
+  private static final EdgeXLogger logger =
+      EdgeXLoggerFactory.getEdgeXLogger(ServiceDevices.class);
+
+  @Autowired
+  private DeviceClient deviceClient;
+
+  @Autowired(required = false)
+  private DeviceProfileClient profileClient;
+
+  @Value("${service.name:}")
+  private String serviceName;
+
+  @Value("${service.command.devices.refresh:30000}")
+  private long refresh;
+
+  private volatile List<Device> devices = Collections.emptyList();
+
+  // the loaded devices by id and by name
+  private volatile Map<String, Device> index = Collections.emptyMap();
+
+  private volatile long loaded;
+
+  // later loads may already see a profile updated in metadata before its callback arrives
+  private volatile boolean captured;
+
+  // the last applied version of each profile, by id
+  private final ConcurrentMap<String, DeviceProfile> profiles = new ConcurrentHashMap<>();
+
+  // a lock rather than a monitor, so a virtual thread loading devices does not pin its carrier
+  private final Lock loading = new ReentrantLock();
+
+  // loaded eagerly so the applied profile versions are captured before any callback arrives
+  @PostConstruct
+  public void initialize() {
+    getDevices();
+  }
+
+  // without a service name no devices can be loaded, so none will ever be found
+  public boolean isConfigured() {
+    return serviceName != null && !serviceName.isEmpty();
+  }
+
+  public List<Device> getDevices() {
+    long now = System.currentTimeMillis();
+    if (loaded == 0 || now - loaded > refresh) {
+      loading.lock();
+      try {
+        if (loaded == 0 || now - loaded > refresh) {
+          load();
+          loaded = now;
+        }
+      } finally {
+        loading.unlock();
+      }
+    }
+    return devices;
+  }
+
+  public List<String> getDeviceIds(String command) {
+    List<String> ids = new ArrayList<>();
+    for (Device device : getDevices()) {
+      if (hasCommand(device, command)) {
+        ids.add(device.getId());
+      }
+    }
+    return ids;
+  }
+
+  public Device getDevice(String deviceId) {
+    getDevices();
+    return index.get(deviceId);
+  }
+
+  // compares the last applied version of the profile with the one now in metadata, assuming
+  // everything changed if either cannot be found; the applied version is looked up before any
+  // load, so one captured from metadata while diffing is never compared
+  public ProfileDiff diffProfile(String profileId) {
+    if (profileId == null) {
+      return ProfileDiff.ALL;
+    }
+    DeviceProfile previous = profiles.get(profileId);
+    List<String> deviceIds = new ArrayList<>();
+    for (Device device : getDevices()) {
+      DeviceProfile profile = device.getProfile();
+      if (profile != null
+          && (profileId.equals(profile.getId()) || profileId.equals(profile.getName()))) {
+        deviceIds.add(device.getId());
+      }
+    }
+    if (profileClient == null) {
+      return ProfileDiff.ALL;
+    }
+    try {
+      DeviceProfile updated = profileClient.deviceProfile(profileId);
+      if (previous == null) {
+        return ProfileDiff.all(updated);
+      }
+      return ProfileDiff.compare(previous, updated, deviceIds);
+    } catch (RuntimeException e) {
+      logger.error("Unable to load profile " + profileId + ": " + e.getMessage());
+      return ProfileDiff.ALL;
+    }
+  }
+
+  // called once every part of the update has been applied
+  public void profileUpdated(String profileId, ProfileDiff diff) {
+    if (profileId == null) {
+      return;
+    }
+    if (diff.getProfile() == null) {
+      profiles.remove(profileId);
+    } else {
+      profiles.put(profileId, diff.getProfile());
+    }
+  }
+
+  public void invalidate() {
+    loaded = 0;
+  }
+
+  private void load() {
+    if (!isConfigured()) {
+      logger.warn("No service.name configured, no devices loaded from metadata");
+      return;
+    }
+    try {
+      List<Device> found = deviceClient.devicesForServiceByName(serviceName);
+      if (found == null) {
+        found = Collections.emptyList();
+      }
+      Map<String, Device> byKey = new HashMap<>();
+      for (Device device : found) {
+        if (device.getName() != null) {
+          byKey.put(device.getName(), device);
+        }
+      }
+      for (Device device : found) {
+        if (device.getId() != null) {
+          byKey.put(device.getId(), device);
+        }
+        DeviceProfile profile = device.getProfile();
+        if (!captured && profile != null && profile.getId() != null) {
+          profiles.putIfAbsent(profile.getId(), profile);
+        }
+      }
+      captured = true;
+      index = byKey;
+      devices = found;
+      logger.debug("Loaded " + devices.size() + " devices for service " + serviceName);
+    } catch (RuntimeException e) {
+      logger.error("Unable to load devices for service " + serviceName + ": " + e.getMessage());
+    }
+  }
+
+  private boolean hasCommand(Device device, String command) {
+    if (device.getProfile() == null || device.getProfile().getCommands() == null) {
+      return false;
+    }
+    for (Command candidate : device.getProfile().getCommands()) {
+      if (command.equals(candidate.getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
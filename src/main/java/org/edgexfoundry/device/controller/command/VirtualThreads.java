@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+
+/**
+ * Virtual thread factories, looked up reflectively so the service still builds for and runs on
+ * JDKs without them. On such JDKs the executors fall back to platform threads. The JDK reads its
+ * pinning trace setting once at startup, so to see where a handler blocks while pinned to its
+ * carrier start the service with -Djdk.tracePinnedThreads=short (or full).
+ */
+public final class VirtualThreads {
+
+  public static final String MODE = "virtual";
+
+  private static final EdgeXLogger logger = EdgeXLoggerFactory.getEdgeXLogger(VirtualThreads.class);
+
+  private VirtualThreads() {}
+
+  public static boolean isVirtual(String mode) {
+    return MODE.equalsIgnoreCase(mode);
+  }
+
+  /**
+   * Returns a factory of virtual threads named prefix0, prefix1..., or null when the JDK does not
+   * support them.
+   */
+  public static ThreadFactory factory(String prefix) {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> type = Class.forName("java.lang.Thread$Builder");
+      Method name = type.getMethod("name", String.class, long.class);
+      builder = name.invoke(builder, prefix, 0L);
+      return (ThreadFactory) type.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      logger.warn("Virtual threads not supported by this JDK (" + System.getProperty("java.version")
+          + "), using platform threads for " + prefix);
+      return null;
+    }
+  }
+}
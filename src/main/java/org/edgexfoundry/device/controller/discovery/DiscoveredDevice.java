@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.discovery;
+
+import java.util.Map;
+
+/**
+ * A device found by an incremental discovery scan, streamed to clients as it is found.
+ */
+public class DiscoveredDevice {
+
+  private final String jobId;
+
+  private final String bus;
+
+  private final String address;
+
+  private final Map<String, String> properties;
+
+  private final long found = System.currentTimeMillis();
+
+  public DiscoveredDevice(String jobId, String bus, String address,
+      Map<String, String> properties) {
+    this.jobId = jobId;
+    this.bus = bus;
+    this.address = address;
+    this.properties = properties;
+  }
+
+  public String getJobId() {
+    return jobId;
+  }
+
+  public String getBus() {
+    return bus;
+  }
+
+  public String getAddress() {
+    return address;
+  }
+
+  public Map<String, String> getProperties() {
+    return properties;
+  }
+
+  public long getFound() {
+    return found;
+  }
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.discovery;
+
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A discovery scan run in the background, reported to clients polling for its status. Discovery
+ * requests made while the scan is running join it rather than starting another. Incremental scans
+ * also report how many addresses were probed, skipped as already known, and found to be devices.
+ */
+public class DiscoveryJob {
+
+  public enum Status {
+    PENDING, RUNNING, COMPLETED, FAILED, CANCELLED
+  }
+
+  private final String id = UUID.randomUUID().toString();
+
+  private final long created = System.currentTimeMillis();
+
+  private final AtomicInteger requests = new AtomicInteger(1);
+
+  private final AtomicInteger probed = new AtomicInteger();
+
+  private final AtomicInteger skipped = new AtomicInteger();
+
+  private final AtomicInteger found = new AtomicInteger();
+
+  private final AtomicInteger errors = new AtomicInteger();
+
+  private volatile Status status = Status.PENDING;
+
+  private volatile long started;
+
+  private volatile long finished;
+
+  private volatile String error;
+
+  private volatile Future<?> future;
+
+  public String getId() {
+    return id;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public long getCreated() {
+    return created;
+  }
+
+  public long getStarted() {
+    return started;
+  }
+
+  public long getFinished() {
+    return finished;
+  }
+
+  public long getElapsed() {
+    if (started == 0) {
+      return 0;
+    }
+    return (finished == 0 ? System.currentTimeMillis() : finished) - started;
+  }
+
+  public int getRequests() {
+    return requests.get();
+  }
+
+  public int getProbed() {
+    return probed.get();
+  }
+
+  public int getSkipped() {
+    return skipped.get();
+  }
+
+  public int getFound() {
+    return found.get();
+  }
+
+  public int getErrors() {
+    return errors.get();
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public boolean isDone() {
+    Status current = status;
+    return current != Status.PENDING && current != Status.RUNNING;
+  }
+
+  void join() {
+    requests.incrementAndGet();
+  }
+
+  void probed(boolean device) {
+    probed.incrementAndGet();
+    if (device) {
+      found.incrementAndGet();
+    }
+  }
+
+  void skipped() {
+    skipped.incrementAndGet();
+  }
+
+  void failed() {
+    errors.incrementAndGet();
+  }
+
+  void setFuture(Future<?> future) {
+    this.future = future;
+  }
+
+  synchronized boolean start() {
+    if (status != Status.PENDING) {
+      return false;
+    }
+    started = System.currentTimeMillis();
+    status = Status.RUNNING;
+    return true;
+  }
+
+  synchronized void finish(Throwable failure) {
+    if (isDone()) {
+      return;
+    }
+    finished = System.currentTimeMillis();
+    if (failure == null) {
+      status = Status.COMPLETED;
+    } else {
+      error = failure.getMessage() == null ? failure.toString() : failure.getMessage();
+      status = Status.FAILED;
+    }
+  }
+
+  synchronized boolean cancel() {
+    if (isDone()) {
+      return false;
+    }
+    finished = System.currentTimeMillis();
+    status = Status.CANCELLED;
+    if (future != null) {
+      future.cancel(true);
+    }
+    return true;
+  }
+}
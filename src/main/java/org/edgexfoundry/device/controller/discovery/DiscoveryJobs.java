@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.discovery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.edgexfoundry.exception.controller.NotFoundException;
+import org.edgexfoundry.service.handler.ServiceHandler;
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs discovery scans one at a time on a background thread. A discovery request made while a
+ * scan is running joins it, and one made within service.discovery.cooldown of a completed scan is
+ * answered with that scan instead of starting another, so repeated requests cannot flood the bus.
+ * Recent jobs are kept for status polling.
+ *
+ * <p>When the service provides an {@link IncrementalScanner}, jobs probe unknown addresses at no
+ * more than service.discovery.rate requests per second on each bus and notify listeners of every
+ * device as it is found. With service.discovery.interval set, scans repeat in the background.
+ * Known addresses are forgotten whenever a device is deleted, as the address a deleted device was
+ * found at is not known here, so the next scan probes every address again.
+ */
+@Component
+public class DiscoveryJobs {
+
+  private static final EdgeXLogger logger = EdgeXLoggerFactory.getEdgeXLogger(DiscoveryJobs.class);
+
+  @Autowired
+  private ServiceHandler handler;
+
+  @Value("${service.discovery.cooldown:60000}")
+  private long coolDown = 60000;
+
+  @Value("${service.discovery.history:16}")
+  private int history = 16;
+
+  @Autowired(required = false)
+  private IncrementalScanner incrementalScanner;
+
+  @Value("${service.discovery.rate:10}")
+  private volatile double rate = 10;
+
+  @Value("${service.discovery.burst:1}")
+  private int burst = 1;
+
+  @Value("${service.discovery.interval:0}")
+  private long interval;
+
+  private final ExecutorService scanner = Executors.newSingleThreadExecutor(task -> {
+    Thread thread = new Thread(task, "device-discovery");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final ExecutorService buses = Executors.newCachedThreadPool(task -> {
+    Thread thread = new Thread(task, "device-discovery-bus");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private ScheduledExecutorService timer;
+
+  private final Set<String> known = ConcurrentHashMap.newKeySet();
+
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+  private final Map<String, DiscoveryJob> jobs = new LinkedHashMap<>();
+
+  private DiscoveryJob current;
+
+  private final AtomicLong joined = new AtomicLong();
+
+  private final AtomicLong cooledDown = new AtomicLong();
+
+  public interface Listener {
+    void found(DiscoveredDevice device) throws Exception;
+  }
+
+  @PostConstruct
+  public void initialize() {
+    if (incrementalScanner == null || interval <= 0) {
+      return;
+    }
+    timer = Executors.newSingleThreadScheduledExecutor(task -> {
+      Thread thread = new Thread(task, "device-discovery-timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // a scan due within the cool-down of the last one joins it, so that bounds the interval too
+    timer.scheduleWithFixedDelay(this::start, interval, interval, TimeUnit.MILLISECONDS);
+    logger.info("Scanning for devices every " + interval + "ms");
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (timer != null) {
+      timer.shutdownNow();
+    }
+    scanner.shutdownNow();
+    buses.shutdownNow();
+  }
+
+  // a listener that throws is removed, as is one whose returned handle is run
+  public Runnable addListener(Listener listener) {
+    listeners.add(listener);
+    return () -> listeners.remove(listener);
+  }
+
+  public synchronized DiscoveryJob start() {
+    if (current != null && !current.isDone()) {
+      current.join();
+      joined.incrementAndGet();
+      logger.debug("Discovery request joined running job " + current.getId());
+      return current;
+    }
+    if (current != null && current.getStatus() == DiscoveryJob.Status.COMPLETED
+        && System.currentTimeMillis() - current.getFinished() < coolDown) {
+      current.join();
+      cooledDown.incrementAndGet();
+      logger.debug("Discovery request within cool-down of job " + current.getId());
+      return current;
+    }
+    DiscoveryJob job = new DiscoveryJob();
+    // cancelled scans that ignore the interrupt still hold the thread, so the next one queues
+    job.setFuture(scanner.submit(() -> run(job)));
+    current = job;
+    jobs.put(job.getId(), job);
+    while (jobs.size() > Math.max(history, 1)) {
+      jobs.remove(jobs.keySet().iterator().next());
+    }
+    logger.info("Started discovery job " + job.getId());
+    return job;
+  }
+
+  public synchronized DiscoveryJob getJob(String id) {
+    DiscoveryJob job = jobs.get(id);
+    if (job == null) {
+      throw new NotFoundException("DiscoveryJob", id);
+    }
+    return job;
+  }
+
+  public synchronized List<DiscoveryJob> getJobs() {
+    List<DiscoveryJob> recent = new ArrayList<>(jobs.values());
+    Collections.reverse(recent);
+    return recent;
+  }
+
+  public DiscoveryJob cancel(String id) {
+    DiscoveryJob job = getJob(id);
+    if (job.cancel()) {
+      logger.info("Cancelled discovery job " + id);
+    }
+    return job;
+  }
+
+  public double getRate() {
+    return rate;
+  }
+
+  // applies from the next scan
+  public void setRate(double rate) {
+    this.rate = rate;
+  }
+
+  public void forgetAddresses() {
+    if (!known.isEmpty()) {
+      logger.debug("Forgetting " + known.size() + " known device addresses");
+      known.clear();
+    }
+  }
+
+  public Map<String, Long> getMetrics() {
+    Map<String, Long> metrics = new LinkedHashMap<>();
+    synchronized (this) {
+      metrics.put("running", current != null && !current.isDone() ? 1L : 0L);
+    }
+    metrics.put("joinedCount", joined.get());
+    metrics.put("coolDownCount", cooledDown.get());
+    metrics.put("knownAddresses", (long) known.size());
+    return metrics;
+  }
+
+  private void run(DiscoveryJob job) {
+    if (!job.start()) {
+      return;
+    }
+    Throwable failure = null;
+    try {
+      if (incrementalScanner == null) {
+        handler.scan();
+      } else {
+        scanIncrementally(job);
+      }
+    } catch (InterruptedException e) {
+      logger.debug("Discovery job " + job.getId() + " interrupted");
+    } catch (Exception e) {
+      failure = e instanceof ExecutionException ? e.getCause() : e;
+      logger.error("Discovery job " + job.getId() + " failed: " + failure.getMessage());
+    } finally {
+      job.finish(failure);
+      Thread.interrupted();
+    }
+    logger.info("Discovery job " + job.getId() + " finished " + job.getStatus() + " after "
+        + job.getElapsed() + "ms");
+  }
+
+  private void scanIncrementally(DiscoveryJob job) throws Exception {
+    List<Future<?>> scans = new ArrayList<>();
+    try {
+      for (String bus : incrementalScanner.getBuses()) {
+        scans.add(buses.submit(() -> {
+          scanBus(job, bus);
+          return null;
+        }));
+      }
+      for (Future<?> scan : scans) {
+        scan.get();
+      }
+    } finally {
+      for (Future<?> scan : scans) {
+        scan.cancel(true);
+      }
+    }
+  }
+
+  private void scanBus(DiscoveryJob job, String bus) throws Exception {
+    TokenBucket budget = new TokenBucket(rate, burst);
+    for (String address : incrementalScanner.getAddresses(bus)) {
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedException();
+      }
+      String key = bus + "/" + address;
+      if (known.contains(key)) {
+        job.skipped();
+        continue;
+      }
+      budget.acquire();
+      Map<String, String> properties;
+      try {
+        properties = incrementalScanner.probe(bus, address);
+      } catch (InterruptedException e) {
+        throw e;
+      } catch (Exception e) {
+        job.failed();
+        logger.debug("Unable to probe " + key + ": " + e.getMessage());
+        continue;
+      }
+      job.probed(properties != null);
+      if (properties != null && known.add(key)) {
+        notify(new DiscoveredDevice(job.getId(), bus, address, properties));
+      }
+    }
+  }
+
+  private void notify(DiscoveredDevice device) {
+    logger.info("Discovered device at " + device.getBus() + "/" + device.getAddress());
+    for (Listener listener : listeners) {
+      try {
+        listener.found(device);
+      } catch (Exception e) {
+        listeners.remove(listener);
+        logger.debug("Removed discovery listener: " + e.getMessage());
+      }
+    }
+  }
+}
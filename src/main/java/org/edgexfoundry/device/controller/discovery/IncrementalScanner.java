@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.discovery;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional discovery SPI for device services whose buses can be probed one address at a time.
+ * When a bean is present, discovery jobs probe the addresses of each bus in parallel across buses,
+ * within the per-bus request budget, skipping addresses where a device was already found. The
+ * scanner remains responsible for provisioning the devices it finds.
+ */
+public interface IncrementalScanner {
+  List<String> getBuses();
+
+  List<String> getAddresses(String bus);
+
+  // properties describing the device found at the address, or null if there is none
+  Map<String, String> probe(String bus, String address) throws Exception;
+
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.discovery;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket pacing the probes sent on one bus. Callers reserve a token and sleep until it is
+ * due, so a burst is allowed after an idle period but the long run rate never exceeds the budget.
+ */
+final class TokenBucket {
+
+  private final double rate;
+
+  private final double burst;
+
+  private double tokens;
+
+  private long refilled = System.nanoTime();
+
+  // rate in tokens per second, unlimited if not positive
+  TokenBucket(double rate, int burst) {
+    this.rate = rate;
+    this.burst = Math.max(burst, 1);
+    this.tokens = this.burst;
+  }
+
+  void acquire() throws InterruptedException {
+    if (rate <= 0) {
+      return;
+    }
+    long wait;
+    synchronized (this) {
+      long now = System.nanoTime();
+      tokens = Math.min(burst, tokens + (now - refilled) * rate / TimeUnit.SECONDS.toNanos(1));
+      refilled = now;
+      tokens -= 1;
+      wait = tokens < 0 ? (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1)) : 0;
+    }
+    TimeUnit.NANOSECONDS.sleep(wait);
+  }
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.impl;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.edgexfoundry.device.controller.command.CancellableCommand;
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandTimeoutException;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.command.DeviceBusyException;
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+/**
+ * Async request work holding an admission permit. The work is interrupted if it outlives its
+ * timeout or the request completes first, e.g. on disconnect, and the permit is released exactly
+ * once either way.
+ */
+final class AdmittedTask {
+
+  private static final EdgeXLogger logger = EdgeXLoggerFactory.getEdgeXLogger(AdmittedTask.class);
+
+  private AdmittedTask() {}
+
+  static <T> WebAsyncTask<T> create(String cmd, Long timeout, CommandAdmission.Permit permit,
+      CommandTimeouts timeouts, AsyncTaskExecutor executor, Callable<T> work) {
+    CancellableCommand<T> call = new CancellableCommand<>(() -> {
+      boolean overloaded = false;
+      try {
+        return work.call();
+      } catch (RejectedExecutionException e) {
+        overloaded = !(e instanceof DeviceBusyException);
+        throw e;
+      } finally {
+        permit.release(overloaded);
+      }
+    });
+    WebAsyncTask<T> task = new WebAsyncTask<>(timeout, executor, call);
+    task.onTimeout(() -> {
+      call.cancel();
+      permit.release(true);
+      timeouts.timedOut();
+      logger.warn("Command " + cmd + " timed out, cancelling");
+      throw new CommandTimeoutException(cmd);
+    });
+    task.onCompletion(() -> {
+      if (call.cancel()) {
+        timeouts.cancelled();
+        logger.debug("Command " + cmd + " abandoned by the client, cancelling");
+      }
+      permit.release();
+    });
+    return task;
+  }
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.impl;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.edgexfoundry.device.controller.AsyncCommandController;
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.device.controller.command.CommandTimeoutException;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.command.DeviceBusyException;
+import org.edgexfoundry.device.controller.command.DeviceCommandRunner;
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping("/api/v1/device/async")
+public class AsyncCommandControllerImpl implements AsyncCommandController {
+
+  private static final EdgeXLogger logger =
+      EdgeXLoggerFactory.getEdgeXLogger(AsyncCommandControllerImpl.class);
+
+  @Autowired
+  private CommandTaskExecutor executor;
+
+  @Autowired
+  private DeviceCommandRunner runner;
+
+  @Autowired
+  private CommandAdmission admission;
+
+  @Autowired
+  private CommandTimeouts timeouts;
+
+  @Override
+  @RequestMapping(value = "/{deviceId}/{cmd}",
+      method = {RequestMethod.PUT, RequestMethod.POST, RequestMethod.GET})
+  public DeferredResult<Map<String, String>> getCommand(HttpServletRequest request,
+      @PathVariable String deviceId, @PathVariable String cmd,
+      @RequestBody(required = false) String arguments) {
+    boolean read = RequestMethod.GET.name().equals(request.getMethod());
+    CommandAdmission.Permit permit = admission.acquire(read);
+    CompletableFuture<Map<String, String>> response;
+    try {
+      response = runner.submit(deviceId, cmd, arguments, read, executor);
+    } catch (RejectedExecutionException e) {
+      permit.release(!(e instanceof DeviceBusyException));
+      throw e;
+    }
+    DeferredResult<Map<String, String>> result = new DeferredResult<>(timeouts.getTimeout(cmd));
+    response.whenComplete((value, error) -> {
+      if (response.isCancelled()) {
+        return;
+      }
+      Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+      permit.release(cause instanceof RejectedExecutionException
+          && !(cause instanceof DeviceBusyException));
+      if (cause == null) {
+        result.setResult(value);
+      } else {
+        result.setErrorResult(cause);
+      }
+    });
+    result.onTimeout(() -> {
+      if (response.cancel(true)) {
+        permit.release(true);
+        timeouts.timedOut();
+        logger.warn("Command " + cmd + " timed out, cancelling");
+        result.setErrorResult(new CommandTimeoutException(cmd));
+      }
+    });
+    result.onCompletion(() -> {
+      if (response.cancel(true)) {
+        timeouts.cancelled();
+        logger.debug("Command " + cmd + " abandoned by the client, cancelling");
+      }
+      permit.release();
+    });
+    return result;
+  }
+}
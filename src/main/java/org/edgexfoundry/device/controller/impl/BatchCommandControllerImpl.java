@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+package org.edgexfoundry.device.controller.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.edgexfoundry.device.controller.BatchCommandController;
+import org.edgexfoundry.device.controller.command.BatchCommand;
+import org.edgexfoundry.device.controller.command.BatchCommandResult;
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandFanOut;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.command.DeviceCommandRunner;
+import org.edgexfoundry.device.controller.command.FanOutSummary;
+import org.edgexfoundry.exception.controller.ClientException;
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+@RestController
+@RequestMapping("/api/v1/device")
+public class BatchCommandControllerImpl implements BatchCommandController {
+
+  private static final EdgeXLogger logger =
+      EdgeXLoggerFactory.getEdgeXLogger(BatchCommandControllerImpl.class);
+
+  @Autowired
+  private CommandTaskExecutor executor;
+
+  @Autowired
+  private DeviceCommandRunner runner;
+
+  @Autowired
+  private CommandFanOut fanOut;
+
+  @Autowired
+  private CommandAdmission admission;
+
+  @Autowired
+  private CommandTimeouts timeouts;
+
+  @Value("${service.command.batch.max:1000}")
+  private int maxCommands;
+
+  // a batch is given this many times the default command timeout
+  @Value("${service.command.batch.timeout.factor:2}")
+  private double timeoutFactor = 2;
+
+  @Override
+  @RequestMapping(value = "/batch", method = RequestMethod.POST)
+  public WebAsyncTask<List<BatchCommandResult>> getBatchCommands(
+      @RequestBody List<BatchCommand> commands) {
+    validate(commands);
+    List<String> keys = new ArrayList<>(commands.size());
+    boolean read = true;
+    for (int i = 0; i < commands.size(); i++) {
+      keys.add(Integer.toString(i));
+      read &= commands.get(i).isRead();
+    }
+    long timeout = (long) (timeouts.getDefaultTimeout() * timeoutFactor);
+    return AdmittedTask.create("batch", timeout > 0 ? timeout : null, admission.acquire(read),
+        timeouts, executor, () -> execute(commands, keys));
+  }
+
+  private List<BatchCommandResult> execute(List<BatchCommand> commands, List<String> keys)
+      throws Exception {
+    BatchCommandResult[] results = new BatchCommandResult[commands.size()];
+    CompletableFuture<FanOutSummary> summary = fanOut.execute(keys, key -> {
+      BatchCommand batchCommand = commands.get(Integer.parseInt(key));
+      return runner.run(batchCommand.getDeviceId(), batchCommand.getCmd(),
+          batchCommand.getArguments(), batchCommand.isRead());
+    }, result -> {
+      int index = Integer.parseInt(result.getDevice());
+      BatchCommand batchCommand = commands.get(index);
+      String id = batchCommand.getId() == null ? result.getDevice() : batchCommand.getId();
+      results[index] = new BatchCommandResult(id, batchCommand, result);
+    });
+    CommandFanOut.await(summary);
+    return Arrays.asList(results);
+  }
+
+  private void validate(List<BatchCommand> commands) {
+    if (commands == null || commands.isEmpty()) {
+      throw new ClientException("No commands supplied in batch");
+    }
+    if (commands.size() > maxCommands) {
+      logger.error("Batch of " + commands.size() + " commands exceeds limit of " + maxCommands);
+      throw new ClientException("Batch exceeds limit of " + maxCommands + " commands");
+    }
+    for (BatchCommand batchCommand : commands) {
+      if (batchCommand == null || batchCommand.getDeviceId() == null
+          || batchCommand.getCmd() == null) {
+        throw new ClientException("Batch command requires a deviceId and cmd");
+      }
+    }
+  }
+}
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+package org.edgexfoundry.device.controller.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes command results as a CBOR (RFC 7049) map of text strings for clients that accept
+ * application/cbor. Strings are UTF-8 encoded straight into a per-thread buffer that is flushed to
+ * the response stream, so no intermediate strings or byte arrays are built per reading.
+ */
+public class CborResponseConverter
+    extends AbstractGenericHttpMessageConverter<Map<String, String>> {
+
+  public static final MediaType APPLICATION_CBOR = new MediaType("application", "cbor");
+
+  private static final int BUFFER_SIZE = 4096;
+
+  private static final int MAP = 5 << 5;
+  private static final int TEXT = 3 << 5;
+  private static final int NULL = 0xf6;
+
+  private static final ThreadLocal<byte[]> buffers =
+      ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+  public CborResponseConverter() {
+    super(APPLICATION_CBOR);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return Map.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  public boolean canRead(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+    return false;
+  }
+
+  // only maps of strings, other map responses such as metrics are left to the other converters
+  @Override
+  public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+    if (type == null || !canWrite(mediaType)) {
+      return false;
+    }
+    ResolvableType map = ResolvableType.forType(type).asMap();
+    return map != ResolvableType.NONE && map.resolveGeneric(0) == String.class
+        && map.resolveGeneric(1) == String.class;
+  }
+
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected Map<String, String> readInternal(Class<? extends Map<String, String>> clazz,
+      HttpInputMessage inputMessage) throws IOException {
+    throw new HttpMessageNotReadableException("CBOR requests are not supported");
+  }
+
+  @Override
+  public Map<String, String> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+      throws IOException {
+    throw new HttpMessageNotReadableException("CBOR requests are not supported");
+  }
+
+  @Override
+  protected void writeInternal(Map<String, String> values, Type type,
+      HttpOutputMessage outputMessage) throws IOException {
+    Encoder encoder = new Encoder(outputMessage.getBody(), buffers.get());
+    encoder.header(MAP, values.size());
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      encoder.text(entry.getKey());
+      encoder.text(entry.getValue());
+    }
+    encoder.flush();
+  }
+
+  static final class Encoder {
+
+    private final OutputStream out;
+
+    private final byte[] buffer;
+
+    private int position;
+
+    Encoder(OutputStream out, byte[] buffer) {
+      this.out = out;
+      this.buffer = buffer;
+    }
+
+    void header(int major, long length) throws IOException {
+      ensure(5);
+      if (length < 24) {
+        buffer[position++] = (byte) (major | length);
+      } else if (length < 0x100) {
+        buffer[position++] = (byte) (major | 24);
+        buffer[position++] = (byte) length;
+      } else if (length < 0x10000) {
+        buffer[position++] = (byte) (major | 25);
+        buffer[position++] = (byte) (length >> 8);
+        buffer[position++] = (byte) length;
+      } else {
+        buffer[position++] = (byte) (major | 26);
+        buffer[position++] = (byte) (length >> 24);
+        buffer[position++] = (byte) (length >> 16);
+        buffer[position++] = (byte) (length >> 8);
+        buffer[position++] = (byte) length;
+      }
+    }
+
+    void text(String value) throws IOException {
+      if (value == null) {
+        ensure(1);
+        buffer[position++] = (byte) NULL;
+        return;
+      }
+      int length = value.length();
+      header(TEXT, utf8Length(value));
+      for (int i = 0; i < length; i++) {
+        ensure(4);
+        char c = value.charAt(i);
+        if (c < 0x80) {
+          buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+          buffer[position++] = (byte) (0xc0 | c >> 6);
+          buffer[position++] = (byte) (0x80 | c & 0x3f);
+        } else if (Character.isHighSurrogate(c) && i + 1 < length
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int code = Character.toCodePoint(c, value.charAt(++i));
+          buffer[position++] = (byte) (0xf0 | code >> 18);
+          buffer[position++] = (byte) (0x80 | code >> 12 & 0x3f);
+          buffer[position++] = (byte) (0x80 | code >> 6 & 0x3f);
+          buffer[position++] = (byte) (0x80 | code & 0x3f);
+        } else if (Character.isSurrogate(c)) {
+          // unpaired surrogate, replaced as String.getBytes does
+          buffer[position++] = '?';
+        } else {
+          buffer[position++] = (byte) (0xe0 | c >> 12);
+          buffer[position++] = (byte) (0x80 | c >> 6 & 0x3f);
+          buffer[position++] = (byte) (0x80 | c & 0x3f);
+        }
+      }
+    }
+
+    void flush() throws IOException {
+      out.write(buffer, 0, position);
+      position = 0;
+      out.flush();
+    }
+
+    private void ensure(int bytes) throws IOException {
+      if (position + bytes > buffer.length) {
+        out.write(buffer, 0, position);
+        position = 0;
+      }
+    }
+
+    private static long utf8Length(String value) {
+      long bytes = 0;
+      int length = value.length();
+      for (int i = 0; i < length; i++) {
+        char c = value.charAt(i);
+        if (c < 0x80) {
+          bytes++;
+        } else if (c < 0x800) {
+          bytes += 2;
+        } else if (Character.isHighSurrogate(c) && i + 1 < length
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+          bytes += 4;
+          i++;
+        } else if (Character.isSurrogate(c)) {
+          bytes++;
+        } else {
+          bytes += 3;
+        }
+      }
+      return bytes;
+    }
+  }
+}
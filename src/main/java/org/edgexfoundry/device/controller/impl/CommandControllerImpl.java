@@ -18,48 +18,183 @@
 
 package org.edgexfoundry.device.controller.impl;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import javax.servlet.http.HttpServletRequest;
 
 import org.edgexfoundry.device.controller.CommandController;
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandArguments;
+import org.edgexfoundry.device.controller.command.CommandFanOut;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.command.DeviceCommandRunner;
+import org.edgexfoundry.device.controller.command.FanOutResult;
+import org.edgexfoundry.device.controller.command.FanOutSummary;
+import org.edgexfoundry.device.controller.command.ServiceDevices;
 import org.edgexfoundry.service.handler.CommandHandler;
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 @RestController
 @RequestMapping("/api/v1/device")
 public class CommandControllerImpl implements CommandController {
 
+  private static final EdgeXLogger logger =
+      EdgeXLoggerFactory.getEdgeXLogger(CommandControllerImpl.class);
+
   @Autowired
   private CommandHandler command;
 
+  @Autowired
+  private CommandTaskExecutor executor;
+
+  @Autowired
+  private DeviceCommandRunner runner;
+
+  @Autowired
+  private ServiceDevices devices;
+
+  @Autowired
+  private CommandFanOut fanOut;
+
+  @Autowired
+  private CommandAdmission admission;
+
+  @Autowired
+  private CommandTimeouts timeouts;
+
+  @Autowired
+  private CommandArguments commandArguments;
+
+  // off by default, so /all/{cmd} keeps using the handler's own device store
+  @Value("${service.command.fanout.enabled:false}")
+  private boolean fanOutEnabled;
+
   @Override
   @RequestMapping(value = "/{deviceId}/{cmd}",
       method = {RequestMethod.PUT, RequestMethod.POST, RequestMethod.GET})
-  public Callable<Map<String, String>> getCommand(@PathVariable String deviceId,
+  public WebAsyncTask<Map<String, String>> getCommand(HttpServletRequest request,
+      @PathVariable String deviceId, @PathVariable String cmd,
+      @RequestBody(required = false) String arguments) {
+    boolean read = RequestMethod.GET.name().equals(request.getMethod());
+    return admit(cmd, read, () -> runner.run(deviceId, cmd, arguments, read));
+  }
+
+  @Override
+  @RequestMapping(value = "/all/{cmd}",
+      method = {RequestMethod.PUT, RequestMethod.POST, RequestMethod.GET})
+  public WebAsyncTask<Map<String, String>> getCommands(HttpServletRequest request,
       @PathVariable String cmd, @RequestBody(required = false) String arguments) {
-    return new Callable<Map<String, String>>() {
-      @Override
-      public Map<String, String> call() throws Exception {
-        return command.getResponse(deviceId, cmd, arguments);
+    boolean read = RequestMethod.GET.name().equals(request.getMethod());
+    return admit(cmd, read, () -> {
+      if (!read && commandArguments.isStrict()) {
+        commandArguments.parse(arguments);
       }
-    };
+      if (!fanOutEnabled) {
+        return command.getResponses(cmd, arguments);
+      }
+      FanOutResult result = CommandFanOut.await(fanOut.collect(devices.getDeviceIds(cmd),
+          deviceId -> runner.execute(deviceId, cmd, arguments)));
+      if (!result.getSummary().getTimedOut().isEmpty()) {
+        logger.warn("Command " + cmd + " timed out for devices: "
+            + result.getSummary().getTimedOut());
+      }
+      return result.getValues();
+    });
   }
 
   @Override
-  @RequestMapping(value = "/all/{cmd}",
+  @RequestMapping(value = "/all/{cmd}/stream",
       method = {RequestMethod.PUT, RequestMethod.POST, RequestMethod.GET})
-  public Callable<Map<String, String>> getCommands(@PathVariable String cmd,
+  public ResponseBodyEmitter streamCommands(HttpServletRequest request, @PathVariable String cmd,
       @RequestBody(required = false) String arguments) {
-    return new Callable<Map<String, String>>() {
-      @Override
-      public Map<String, String> call() throws Exception {
-        return command.getResponses(cmd, arguments);
+    boolean read = RequestMethod.GET.name().equals(request.getMethod());
+    CommandAdmission.Permit permit = admission.acquire(read);
+    NdjsonEmitter emitter = new NdjsonEmitter();
+    CompletableFuture<FanOutSummary> summary;
+    try {
+      Supplier<CompletableFuture<FanOutSummary>> stream = () -> fanOut.execute(
+          devices.getDeviceIds(cmd), deviceId -> runner.run(deviceId, cmd, arguments, read),
+          emitter::sendRecord);
+      summary = !read && commandArguments.isStrict() ? parseThen(arguments, stream) : stream.get();
+    } catch (RuntimeException e) {
+      permit.release();
+      throw e;
+    }
+    summary.whenComplete((result, error) -> {
+      permit.release();
+      if (summary.isCancelled()) {
+        // cancelled because the stream already completed
+        return;
+      }
+      if (error != null) {
+        emitter.completeWithError(error instanceof CompletionException ? error.getCause() : error);
+        return;
+      }
+      emitter.sendRecord(Collections.singletonMap("summary", result));
+      emitter.complete();
+    });
+    emitter.onCompletion(() -> summary.cancel(true));
+    return emitter;
+  }
+
+  // strict arguments are parsed on the executor rather than the request thread, and cancelling
+  // the returned future cancels the stream started once they parse
+  private CompletableFuture<FanOutSummary> parseThen(String arguments,
+      Supplier<CompletableFuture<FanOutSummary>> stream) {
+    CompletableFuture<FanOutSummary> summary = new CompletableFuture<>();
+    executor.execute(() -> {
+      try {
+        commandArguments.parse(arguments);
+      } catch (RuntimeException e) {
+        summary.completeExceptionally(e);
+        return;
       }
-    };
+      if (summary.isDone()) {
+        return;
+      }
+      CompletableFuture<FanOutSummary> started;
+      try {
+        started = stream.get();
+      } catch (RuntimeException e) {
+        summary.completeExceptionally(e);
+        return;
+      }
+      started.whenComplete((result, error) -> {
+        if (error == null) {
+          summary.complete(result);
+        } else {
+          summary.completeExceptionally(error);
+        }
+      });
+      summary.whenComplete((result, error) -> {
+        if (summary.isCancelled()) {
+          started.cancel(true);
+        }
+      });
+    });
+    return summary;
+  }
+
+  // sheds the command with a 503 when over the admission limit
+  private WebAsyncTask<Map<String, String>> admit(String cmd, boolean read,
+      Callable<Map<String, String>> work) {
+    return AdmittedTask.create(cmd, timeouts.getTimeout(cmd), admission.acquire(read), timeouts,
+        executor, work);
   }
 }
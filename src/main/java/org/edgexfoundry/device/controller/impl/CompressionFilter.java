@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+package org.edgexfoundry.device.controller.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Compresses responses with gzip or deflate, as negotiated through Accept-Encoding, once they reach
+ * the size threshold. Smaller responses are sent as is. The body is buffered in chunks drawn from
+ * a shared pool, and deflaters are pooled too, so large broadcast responses do not allocate a new
+ * contiguous array per request. Streamed responses (/stream) are not filtered.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+  static final String GZIP = "gzip";
+  static final String DEFLATE = "deflate";
+
+  private static final int CHUNK_SIZE = 16384;
+
+  private static final byte[] GZIP_HEADER =
+      {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+  private final int threshold;
+
+  private final int level;
+
+  private final BlockingQueue<byte[]> chunks;
+
+  private final BlockingQueue<Deflater> gzipDeflaters;
+
+  private final BlockingQueue<Deflater> deflaters;
+
+  public CompressionFilter(int threshold, int level, int pooledChunks) {
+    this.threshold = threshold;
+    this.level = level;
+    int pooled = Math.max(1, pooledChunks);
+    chunks = new ArrayBlockingQueue<>(pooled);
+    gzipDeflaters = new ArrayBlockingQueue<>(pooled);
+    deflaters = new ArrayBlockingQueue<>(pooled);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return request.getRequestURI().endsWith("/stream");
+  }
+
+  // the body of an async request is only written on the async dispatch
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    BufferedResponse buffered = WebUtils.getNativeResponse(response, BufferedResponse.class);
+    if (buffered == null) {
+      response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+      String encoding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+      if (encoding == null) {
+        filterChain.doFilter(request, response);
+        return;
+      }
+      buffered = new BufferedResponse(response, encoding);
+    }
+    boolean completed = false;
+    try {
+      filterChain.doFilter(request, buffered);
+      completed = true;
+    } finally {
+      if (!isAsyncStarted(request)) {
+        if (completed) {
+          finish(buffered);
+        } else {
+          buffered.release();
+        }
+      }
+    }
+  }
+
+  static String negotiate(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return null;
+    }
+    boolean deflate = false;
+    for (String token : acceptEncoding.split(",")) {
+      String[] parts = token.split(";");
+      String coding = parts[0].trim();
+      if (parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?")) {
+        continue;
+      }
+      if (GZIP.equalsIgnoreCase(coding)) {
+        return GZIP;
+      }
+      deflate |= DEFLATE.equalsIgnoreCase(coding);
+    }
+    return deflate ? DEFLATE : null;
+  }
+
+  private void finish(BufferedResponse buffered) throws IOException {
+    HttpServletResponse response = (HttpServletResponse) buffered.getResponse();
+    try {
+      buffered.flushWriter();
+      if (buffered.size < threshold || response.isCommitted()) {
+        response.setContentLength((int) buffered.size);
+        buffered.copyTo(response.getOutputStream());
+      } else {
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, buffered.encoding);
+        compress(buffered, response.getOutputStream());
+      }
+    } finally {
+      buffered.release();
+    }
+  }
+
+  private void compress(BufferedResponse buffered, OutputStream out) throws IOException {
+    boolean gzip = GZIP.equals(buffered.encoding);
+    BlockingQueue<Deflater> pool = gzip ? gzipDeflaters : deflaters;
+    Deflater deflater = pool.poll();
+    if (deflater == null) {
+      deflater = new Deflater(level, gzip);
+    }
+    byte[] output = take();
+    try {
+      CRC32 crc = new CRC32();
+      if (gzip) {
+        out.write(GZIP_HEADER);
+      }
+      int last = buffered.chunks.size() - 1;
+      for (int i = 0; i <= last; i++) {
+        byte[] chunk = buffered.chunks.get(i);
+        int length = i == last ? buffered.position : chunk.length;
+        crc.update(chunk, 0, length);
+        deflater.setInput(chunk, 0, length);
+        while (!deflater.needsInput()) {
+          out.write(output, 0, deflater.deflate(output));
+        }
+      }
+      deflater.finish();
+      while (!deflater.finished()) {
+        out.write(output, 0, deflater.deflate(output));
+      }
+      if (gzip) {
+        writeInt(out, (int) crc.getValue());
+        writeInt(out, (int) buffered.size);
+      }
+    } finally {
+      deflater.reset();
+      if (!pool.offer(deflater)) {
+        deflater.end();
+      }
+      chunks.offer(output);
+    }
+  }
+
+  private static void writeInt(OutputStream out, int value) throws IOException {
+    out.write(value);
+    out.write(value >> 8);
+    out.write(value >> 16);
+    out.write(value >> 24);
+  }
+
+  private byte[] take() {
+    byte[] chunk = chunks.poll();
+    return chunk == null ? new byte[CHUNK_SIZE] : chunk;
+  }
+
+  /**
+   * Holds the body until the request completes, suppressing the content length and commits the
+   * application would otherwise make.
+   */
+  private final class BufferedResponse extends HttpServletResponseWrapper {
+
+    private final String encoding;
+
+    private final List<byte[]> chunks = new ArrayList<>();
+
+    private int position = CHUNK_SIZE;
+
+    private long size;
+
+    private ServletOutputStream outputStream;
+
+    private PrintWriter writer;
+
+    private BufferedResponse(HttpServletResponse response, String encoding) {
+      super(response);
+      this.encoding = encoding;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+      if (outputStream == null) {
+        outputStream = new ServletOutputStream() {
+          @Override
+          public void write(int b) {
+            if (position == CHUNK_SIZE) {
+              chunks.add(take());
+              position = 0;
+            }
+            chunks.get(chunks.size() - 1)[position++] = (byte) b;
+            size++;
+          }
+
+          @Override
+          public void write(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+              if (position == CHUNK_SIZE) {
+                chunks.add(take());
+                position = 0;
+              }
+              int count = Math.min(length, CHUNK_SIZE - position);
+              System.arraycopy(bytes, offset, chunks.get(chunks.size() - 1), position, count);
+              position += count;
+              offset += count;
+              length -= count;
+              size += count;
+            }
+          }
+
+          // the body is buffered in memory, so writes never block
+          @Override
+          public boolean isReady() {
+            return true;
+          }
+
+          @Override
+          public void setWriteListener(WriteListener listener) {
+            try {
+              getResponse().getOutputStream().setWriteListener(listener);
+            } catch (IOException e) {
+              throw new IllegalStateException("Response output not available", e);
+            }
+          }
+        };
+      }
+      return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      if (writer == null) {
+        writer = new PrintWriter(
+            new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+      }
+      return writer;
+    }
+
+    @Override
+    public void setContentLength(int length) {}
+
+    @Override
+    public void setContentLengthLong(long length) {}
+
+    @Override
+    public void setHeader(String name, String value) {
+      if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        super.setHeader(name, value);
+      }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+      if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        super.addHeader(name, value);
+      }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+      if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        super.setIntHeader(name, value);
+      }
+    }
+
+    @Override
+    public void flushBuffer() {
+      flushWriter();
+    }
+
+    @Override
+    public void resetBuffer() {
+      release();
+    }
+
+    @Override
+    public void reset() {
+      super.reset();
+      // the body may still be compressed, so caches must keep varying on the request encoding
+      addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+      release();
+    }
+
+    private void flushWriter() {
+      if (writer != null) {
+        writer.flush();
+      }
+    }
+
+    private void copyTo(OutputStream out) throws IOException {
+      int last = chunks.size() - 1;
+      for (int i = 0; i <= last; i++) {
+        out.write(chunks.get(i), 0, i == last ? position : CHUNK_SIZE);
+      }
+    }
+
+    private void release() {
+      for (byte[] chunk : chunks) {
+        CompressionFilter.this.chunks.offer(chunk);
+      }
+      chunks.clear();
+      position = CHUNK_SIZE;
+      size = 0;
+    }
+  }
+}
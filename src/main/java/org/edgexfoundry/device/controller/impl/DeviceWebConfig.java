@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+package org.edgexfoundry.device.controller.impl;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import javax.servlet.DispatcherType;
+
+import org.edgexfoundry.device.controller.callback.CallbackAlertConverter;
+import org.edgexfoundry.device.controller.metrics.MetricsInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.embedded.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+@Configuration
+public class DeviceWebConfig extends WebMvcConfigurerAdapter {
+
+  @Autowired
+  private MetricsInterceptor metricsInterceptor;
+
+  @Value("${service.command.compression.enabled:false}")
+  private boolean compressionEnabled;
+
+  @Value("${service.command.compression.threshold:2048}")
+  private int compressionThreshold;
+
+  @Value("${service.command.compression.level:1}")
+  private int compressionLevel;
+
+  @Value("${service.command.compression.buffers:64}")
+  private int compressionBuffers;
+
+  // broadcast responses only; the filter also runs on the async dispatch that writes the body
+  @Bean
+  public FilterRegistrationBean compressionFilter() {
+    FilterRegistrationBean registration = new FilterRegistrationBean(
+        new CompressionFilter(compressionThreshold, compressionLevel, compressionBuffers));
+    registration.addUrlPatterns("/api/v1/device/all/*");
+    registration.setDispatcherTypes(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC));
+    registration.setEnabled(compressionEnabled);
+    return registration;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(metricsInterceptor);
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.add(0, new CallbackAlertConverter());
+    // last, so JSON stays the default for clients accepting anything
+    converters.add(new CborResponseConverter());
+  }
+}
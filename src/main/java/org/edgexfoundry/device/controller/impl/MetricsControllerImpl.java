@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+package org.edgexfoundry.device.controller.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.edgexfoundry.device.controller.MetricsController;
+import org.edgexfoundry.device.controller.callback.CallbackDispatcher;
+import org.edgexfoundry.device.controller.callback.CallbackQueue;
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandCoalescer;
+import org.edgexfoundry.device.controller.command.CommandFanOut;
+import org.edgexfoundry.device.controller.command.CommandResponseCache;
+import org.edgexfoundry.device.controller.command.CommandSubscriptions;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.discovery.DiscoveryJobs;
+import org.edgexfoundry.device.controller.metrics.MetricsRegistry;
+import org.edgexfoundry.device.controller.metrics.MetricsReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/metrics")
+public class MetricsControllerImpl implements MetricsController {
+
+  private static final String PROMETHEUS_TEXT = "text/plain;version=0.0.4;charset=utf-8";
+
+  @Autowired
+  private MetricsRegistry metrics;
+
+  @Autowired
+  private CommandTaskExecutor executor;
+
+  @Autowired
+  private CommandFanOut fanOut;
+
+  @Autowired
+  private CommandCoalescer coalescer;
+
+  @Autowired
+  private CommandResponseCache cache;
+
+  @Autowired
+  private CommandAdmission admission;
+
+  @Autowired
+  private CommandTimeouts timeouts;
+
+  @Autowired
+  private CommandSubscriptions subscriptions;
+
+  @Autowired
+  private DiscoveryJobs discovery;
+
+  @Autowired
+  private CallbackQueue callbacks;
+
+  @Autowired
+  private CallbackDispatcher dispatcher;
+
+  @Override
+  @RequestMapping(method = RequestMethod.GET)
+  public Map<String, Object> getMetrics() {
+    return MetricsReport.toMap(metrics.getSeries(), gauges());
+  }
+
+  @Override
+  @RequestMapping(value = "/prometheus", method = RequestMethod.GET, produces = PROMETHEUS_TEXT)
+  public String getPrometheusMetrics() {
+    return MetricsReport.toPrometheus(metrics.getSeries(), gauges());
+  }
+
+  private Map<String, Map<String, ? extends Number>> gauges() {
+    Map<String, Number> fanOutMetrics = new LinkedHashMap<>();
+    fanOutMetrics.put("parallelism", fanOut.getParallelism());
+    fanOutMetrics.put("queueSize", fanOut.getQueueSize());
+    Map<String, Number> cacheMetrics = new LinkedHashMap<>();
+    cacheMetrics.put("size", cache.size());
+    cacheMetrics.put("hitCount", cache.getHitCount());
+    cacheMetrics.put("missCount", cache.getMissCount());
+    cacheMetrics.put("coalescedCount", coalescer.getCoalescedCount());
+    cacheMetrics.put("inFlightReads", coalescer.getInFlightCount());
+    Map<String, Number> callbackMetrics = new LinkedHashMap<>(callbacks.getMetrics());
+    callbackMetrics.put("supersededCount", dispatcher.getSupersededCount());
+
+    Map<String, Map<String, ? extends Number>> gauges = new LinkedHashMap<>();
+    gauges.put("executor", executor.getMetrics());
+    gauges.put("admission", admission.getMetrics());
+    gauges.put("timeouts", timeouts.getMetrics());
+    gauges.put("fanOut", fanOutMetrics);
+    gauges.put("readCache", cacheMetrics);
+    gauges.put("subscriptions", subscriptions.getMetrics());
+    gauges.put("discovery", discovery.getMetrics());
+    gauges.put("callbacks", callbackMetrics);
+    return gauges;
+  }
+}
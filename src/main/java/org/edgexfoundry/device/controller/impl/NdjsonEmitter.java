@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+package org.edgexfoundry.device.controller.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams one JSON document per line (newline delimited JSON) as records become available.
+ */
+class NdjsonEmitter extends ResponseBodyEmitter {
+
+  static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+  private static final EdgeXLogger logger = EdgeXLoggerFactory.getEdgeXLogger(NdjsonEmitter.class);
+
+  private static final ObjectMapper mapper =
+      new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+  @Override
+  protected void extendResponse(ServerHttpResponse outputMessage) {
+    outputMessage.getHeaders().setContentType(NDJSON);
+  }
+
+  void sendRecord(Object record) {
+    try {
+      send(mapper.writeValueAsString(record) + "\n", NDJSON);
+    } catch (IOException | IllegalStateException e) {
+      logger.debug("Unable to stream record, client gone: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+package org.edgexfoundry.device.controller.impl;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.edgexfoundry.device.controller.command.CommandTimeoutException;
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+@ControllerAdvice
+public class RejectedCommandAdvice {
+
+  private static final EdgeXLogger logger =
+      EdgeXLoggerFactory.getEdgeXLogger(RejectedCommandAdvice.class);
+
+  @Value("${service.command.retry.after:1}")
+  private int retryAfter;
+
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ResponseEntity<String> rejected(RejectedExecutionException exception) {
+    logger.debug("Rejecting request, service busy: " + exception.getMessage());
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, Integer.toString(retryAfter));
+    return new ResponseEntity<>("Device service busy, retry after " + retryAfter + " seconds",
+        headers, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  @ExceptionHandler(CommandTimeoutException.class)
+  public ResponseEntity<String> timedOut(CommandTimeoutException exception) {
+    return new ResponseEntity<>(exception.getMessage(), HttpStatus.GATEWAY_TIMEOUT);
+  }
+}
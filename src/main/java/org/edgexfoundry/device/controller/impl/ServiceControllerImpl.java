@@ -17,17 +17,28 @@
  *******************************************************************************/
 package org.edgexfoundry.device.controller.impl;
 
+import java.util.List;
+import java.util.Map;
+
 import org.edgexfoundry.device.controller.ServiceController;
-import org.edgexfoundry.service.handler.ServiceHandler;
+import org.edgexfoundry.device.controller.discovery.DiscoveryJob;
+import org.edgexfoundry.device.controller.discovery.DiscoveryJobs;
+import org.edgexfoundry.device.controller.transform.TransformPolicies;
+import org.edgexfoundry.device.controller.tuning.RuntimeTuning;
+import org.edgexfoundry.exception.controller.ClientException;
 import org.edgexfoundry.service.transform.ObjectTransform;
 import org.edgexfoundry.support.logging.client.EdgeXLogger;
 import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/")
@@ -40,21 +51,130 @@ public class ServiceControllerImpl implements ServiceController {
   ObjectTransform transform;
 
   @Autowired
-  ServiceHandler handler;
+  TransformPolicies transforms;
+
+  @Autowired
+  DiscoveryJobs discovery;
+
+  @Autowired
+  RuntimeTuning tuning;
+
+  @Value("${service.discovery.stream.timeout:3600000}")
+  private long streamTimeout;
 
   @Override
   @RequestMapping(path = "/debug/transformData/{transformData}", method = RequestMethod.GET)
   public @ResponseBody String setTransformData(@PathVariable boolean transformData) {
     logger.info("Setting transform data to: " + transformData);
-    transform.setTransformData(transformData);
+    if (transforms.isEnabled()) {
+      transforms.setTransformData(transformData);
+    } else {
+      transform.setTransformData(transformData);
+    }
     return "Set transform data to: " + transformData;
   }
 
+  @Override
+  @RequestMapping(path = "/debug/transformData", method = RequestMethod.GET)
+  public @ResponseBody Map<String, Object> getTransformData() {
+    return transforms.getPolicies();
+  }
+
+  // "default" clears the policy, deferring to the command or global setting
+  @Override
+  @RequestMapping(path = "/debug/transformData/device/{deviceId}/{transformData}",
+      method = RequestMethod.GET)
+  public @ResponseBody String setDeviceTransformData(@PathVariable String deviceId,
+      @PathVariable String transformData) {
+    transforms.setDevicePolicy(deviceId, policy(transformData));
+    logger.info("Setting transform data for device " + deviceId + " to: " + transformData);
+    return "Set transform data for device " + deviceId + " to: " + transformData;
+  }
+
+  @Override
+  @RequestMapping(path = "/debug/transformData/command/{cmd}/{transformData}",
+      method = RequestMethod.GET)
+  public @ResponseBody String setCommandTransformData(@PathVariable String cmd,
+      @PathVariable String transformData) {
+    transforms.setCommandPolicy(cmd, policy(transformData));
+    logger.info("Setting transform data for command " + cmd + " to: " + transformData);
+    return "Set transform data for command " + cmd + " to: " + transformData;
+  }
+
+  @Override
+  @RequestMapping(path = "/debug/transformData/device/{deviceId}/command/{cmd}/{transformData}",
+      method = RequestMethod.GET)
+  public @ResponseBody String setDeviceCommandTransformData(@PathVariable String deviceId,
+      @PathVariable String cmd, @PathVariable String transformData) {
+    transforms.setPolicy(deviceId, cmd, policy(transformData));
+    logger.info("Setting transform data for device " + deviceId + " command " + cmd + " to: "
+        + transformData);
+    return "Set transform data for device " + deviceId + " command " + cmd + " to: "
+        + transformData;
+  }
+
+  @Override
+  @RequestMapping(path = "/debug/tuning", method = RequestMethod.GET)
+  public @ResponseBody Map<String, Object> getTuning() {
+    return tuning.getValues();
+  }
+
+  // applies all of the settings or, if any is invalid, none of them
+  @Override
+  @RequestMapping(path = "/debug/tuning", method = RequestMethod.PUT)
+  public @ResponseBody Map<String, Object> setTuning(@RequestBody Map<String, Object> settings) {
+    logger.info("Applying runtime settings: " + settings);
+    return tuning.apply(settings);
+  }
+
   @Override
   @RequestMapping(path = "/discovery", method = RequestMethod.POST)
-  public @ResponseBody String doDiscovery() {
+  public @ResponseBody DiscoveryJob doDiscovery() {
     logger.info("Running discovery request");
-    handler.scan();
-    return "Running discovery";
+    return discovery.start();
+  }
+
+  @Override
+  @RequestMapping(path = "/discovery", method = RequestMethod.GET)
+  public @ResponseBody List<DiscoveryJob> getDiscoveries() {
+    return discovery.getJobs();
+  }
+
+  @Override
+  @RequestMapping(path = "/discovery/{jobId}", method = RequestMethod.GET)
+  public @ResponseBody DiscoveryJob getDiscovery(@PathVariable String jobId) {
+    return discovery.getJob(jobId);
+  }
+
+  @Override
+  @RequestMapping(path = "/discovery/{jobId}", method = RequestMethod.DELETE)
+  public @ResponseBody DiscoveryJob cancelDiscovery(@PathVariable String jobId) {
+    return discovery.cancel(jobId);
+  }
+
+  // server sent "device" events, one per device found by incremental discovery scans
+  @Override
+  @RequestMapping(path = "/discovery/stream", method = RequestMethod.GET)
+  public SseEmitter streamDiscovery() {
+    SseEmitter emitter = new SseEmitter(streamTimeout);
+    Runnable removal = discovery.addListener(device -> emitter
+        .send(SseEmitter.event().name("device").data(device, MediaType.APPLICATION_JSON)));
+    emitter.onCompletion(removal);
+    emitter.onTimeout(removal);
+    return emitter;
+  }
+
+  private Boolean policy(String transformData) {
+    if ("default".equalsIgnoreCase(transformData)) {
+      return null;
+    }
+    if (!"true".equalsIgnoreCase(transformData) && !"false".equalsIgnoreCase(transformData)) {
+      throw new ClientException("Transform data must be true, false or default");
+    }
+    if (!transforms.isEnabled()) {
+      throw new ClientException("Per device and command transforms require "
+          + "service.transform.pipeline.enabled");
+    }
+    return Boolean.valueOf(transformData);
   }
 }
@@ -20,8 +20,13 @@
 package org.edgexfoundry.device.controller.impl;
 
 import org.edgexfoundry.device.controller.StatusController;
+import org.edgexfoundry.device.controller.metrics.ServiceHealth;
+import org.edgexfoundry.device.controller.metrics.ServiceStatus;
 import org.edgexfoundry.support.logging.client.EdgeXLogger;
 import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -34,10 +39,24 @@ public class StatusControllerImpl implements StatusController {
   private static final EdgeXLogger logger =
       EdgeXLoggerFactory.getEdgeXLogger(StatusControllerImpl.class);
 
+  @Autowired
+  private ServiceHealth health;
+
   @Override
   @RequestMapping(method = RequestMethod.GET)
   public @ResponseBody String ping() {
     logger.debug("Device service pinged - yes its up!");
     return "pong";
   }
+
+  @Override
+  @RequestMapping(value = "/status", method = RequestMethod.GET)
+  public ResponseEntity<ServiceStatus> status() {
+    ServiceStatus status = health.getStatus();
+    if (!status.isReady()) {
+      logger.debug("Device service not ready: " + status.getReasons());
+    }
+    return new ResponseEntity<>(status,
+        status.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE);
+  }
 }
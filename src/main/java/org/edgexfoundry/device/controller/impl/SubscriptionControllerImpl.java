@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.impl;
+
+import org.edgexfoundry.device.controller.SubscriptionController;
+import org.edgexfoundry.device.controller.command.CommandSubscriptions;
+import org.edgexfoundry.device.controller.command.ServiceDevices;
+import org.edgexfoundry.domain.meta.Device;
+import org.edgexfoundry.exception.controller.ClientException;
+import org.edgexfoundry.exception.controller.NotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/subscription")
+public class SubscriptionControllerImpl implements SubscriptionController {
+
+  private static final String DEVICE_TYPE = "Device";
+  private static final String COMMAND_TYPE = "Command";
+
+  @Autowired
+  private ServiceDevices devices;
+
+  @Autowired
+  private CommandSubscriptions subscriptions;
+
+  @Value("${service.subscription.timeout:3600000}")
+  private long timeout;
+
+  // server sent events named after the command, each carrying the readings that changed as JSON
+  @Override
+  @RequestMapping(value = "/{deviceId}/{cmd}", method = RequestMethod.GET)
+  public SseEmitter subscribe(@PathVariable String deviceId, @PathVariable String cmd,
+      @RequestParam(defaultValue = "0") long interval,
+      @RequestParam(defaultValue = "0") double deadband) {
+    if (interval < 0 || deadband < 0) {
+      throw new ClientException("Subscription interval and deadband must not be negative");
+    }
+    if (!devices.isConfigured()) {
+      throw new IllegalStateException(
+          "No service.name configured, so this service has no devices to subscribe to");
+    }
+    Device device = devices.getDevice(deviceId);
+    if (device == null) {
+      throw new NotFoundException(DEVICE_TYPE, deviceId);
+    }
+    if (!devices.getDeviceIds(cmd).contains(device.getId())) {
+      throw new NotFoundException(COMMAND_TYPE, cmd);
+    }
+    SseEmitter emitter = new SseEmitter(timeout);
+    CommandSubscriptions.Subscription subscription = subscriptions.subscribe(device.getId(), cmd,
+        interval, deadband,
+        values -> emitter.send(SseEmitter.event().name(cmd).data(values,
+            MediaType.APPLICATION_JSON)));
+    emitter.onCompletion(subscription::cancel);
+    emitter.onTimeout(subscription::cancel);
+    return emitter;
+  }
+}
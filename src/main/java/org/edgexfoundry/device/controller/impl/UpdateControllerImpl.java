@@ -17,9 +17,24 @@
  *******************************************************************************/
 package org.edgexfoundry.device.controller.impl;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
 
 import org.edgexfoundry.device.controller.UpdateController;
+import org.edgexfoundry.device.controller.callback.CallbackDispatcher;
+import org.edgexfoundry.device.controller.callback.CallbackQueue;
+import org.edgexfoundry.device.controller.command.CommandResponseCache;
+import org.edgexfoundry.device.controller.command.DeviceConcurrencyLimiter;
+import org.edgexfoundry.device.controller.command.ProfileDiff;
+import org.edgexfoundry.device.controller.command.ServiceDevices;
+import org.edgexfoundry.device.controller.discovery.DiscoveryJobs;
+import org.edgexfoundry.device.controller.metrics.MetricsRegistry;
+import org.edgexfoundry.device.controller.metrics.Series;
+import org.edgexfoundry.device.controller.transform.TransformPolicies;
 import org.edgexfoundry.domain.meta.ActionType;
 import org.edgexfoundry.domain.meta.CallbackAlert;
 import org.edgexfoundry.exception.controller.ClientException;
@@ -29,6 +44,9 @@ import org.edgexfoundry.service.handler.UpdateHandler;
 import org.edgexfoundry.support.logging.client.EdgeXLogger;
 import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -49,9 +67,81 @@ public class UpdateControllerImpl implements UpdateController {
   @Autowired
   private SchedulerCallbackHandler callbackHandler;
 
+  @Autowired
+  private CommandResponseCache cache;
+
+  @Autowired
+  private ServiceDevices devices;
+
+  @Autowired
+  private CallbackQueue callbacks;
+
+  @Autowired
+  private CallbackDispatcher dispatcher;
+
+  @Autowired
+  private MetricsRegistry metrics;
+
+  @Autowired
+  private TransformPolicies transforms;
+
+  @Autowired
+  private DeviceConcurrencyLimiter limiter;
+
+  @Autowired
+  private DiscoveryJobs discovery;
+
+  private final Map<ActionType, Map<HttpMethod, Consumer<CallbackAlert>>> operations =
+      new EnumMap<>(ActionType.class);
+
+  public UpdateControllerImpl() {
+    for (ActionType type : ActionType.values()) {
+      operations.put(type, new EnumMap<>(HttpMethod.class));
+    }
+    operation(ActionType.DEVICE, HttpMethod.POST, alert -> {
+      addDevice(alert.getId());
+      devices.invalidate();
+    });
+    operation(ActionType.DEVICE, HttpMethod.PUT, alert -> {
+      updateDevice(alert.getId());
+      cache.invalidateDevice(alert.getId());
+      devices.invalidate();
+      transforms.invalidateDevice(alert.getId());
+    });
+    operation(ActionType.DEVICE, HttpMethod.DELETE, alert -> {
+      deleteDevice(alert.getId());
+      cache.invalidateDevice(alert.getId());
+      limiter.remove(alert.getId());
+      discovery.forgetAddresses();
+      devices.invalidate();
+      transforms.invalidateDevice(alert.getId());
+    });
+    operation(ActionType.PROFILE, HttpMethod.PUT, alert -> {
+      ProfileDiff diff = devices.diffProfile(alert.getId());
+      if (updateProfile(alert.getId(), diff)) {
+        devices.profileUpdated(alert.getId(), diff);
+      }
+      devices.invalidate();
+    });
+    operation(ActionType.PROVISIONWATCHER, HttpMethod.POST, alert -> addWatcher(alert.getId()));
+    operation(ActionType.PROVISIONWATCHER, HttpMethod.PUT, alert -> updateWatcher(alert.getId()));
+    operation(ActionType.PROVISIONWATCHER, HttpMethod.DELETE,
+        alert -> deleteWatcher(alert.getId()));
+    for (ActionType type : new ActionType[] {ActionType.SCHEDULE, ActionType.SCHEDULEEVENT}) {
+      operation(type, HttpMethod.POST, alert -> callbackHandler.handlePost(alert));
+      operation(type, HttpMethod.PUT, alert -> callbackHandler.handlePut(alert));
+      operation(type, HttpMethod.DELETE, alert -> callbackHandler.handleDelete(alert));
+    }
+  }
+
+  @PostConstruct
+  public void startCallbacks() {
+    callbacks.start(this::process);
+  }
+
   @Override
   @RequestMapping("/${service.callback}")
-  public void getCallback(HttpServletRequest request,
+  public ResponseEntity<Void> getCallback(HttpServletRequest request,
       @RequestBody(required = false) CallbackAlert data) {
 
     if (data != null) {
@@ -63,76 +153,38 @@ public class UpdateControllerImpl implements UpdateController {
         throw new ClientException("Callback parameters were null");
       }
 
-      switch (actionType) {
-        case DEVICE:
-          deviceUpdate(id, method);
-          break;
-        case PROFILE:
-          if (method.equals("PUT")) {
-            updateProfile(id);
-          }
-          break;
-        case PROVISIONWATCHER:
-          provisionWatcherUpdate(id, method);
-          break;
-        case SCHEDULE:
-        case SCHEDULEEVENT:
-          scheduleUpdate(data, method);
-          break;
-        default:
-          break;
+      HttpMethod httpMethod = HttpMethod.resolve(method);
+      if (operations.get(actionType).get(httpMethod) == null) {
+        return new ResponseEntity<>(HttpStatus.OK);
+      }
+      if (callbacks.isEnabled()) {
+        callbacks.submit(data, httpMethod);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
       }
+      CallbackDispatcher
+          .await(dispatcher.dispatch(data, httpMethod, () -> process(data, httpMethod)));
     } else {
       logger.error("No data supplied to update controller");
     }
+    return new ResponseEntity<>(HttpStatus.OK);
   }
 
-  private void deviceUpdate(String id, String method) {
-    switch (method) {
-      case "POST":
-        addDevice(id);
-        break;
-      case "PUT":
-        updateDevice(id);
-        break;
-      case "DELETE":
-        deleteDevice(id);
-        break;
-      default:
-        break;
+  private void process(CallbackAlert data, HttpMethod method) {
+    Series series = metrics.begin(MetricsRegistry.CALLBACK, data.getType().name());
+    long start = System.nanoTime();
+    RuntimeException error = null;
+    try {
+      operations.get(data.getType()).get(method).accept(data);
+    } catch (RuntimeException e) {
+      error = e;
+      throw e;
+    } finally {
+      series.end(System.nanoTime() - start, error);
     }
   }
 
-  private void provisionWatcherUpdate(String id, String method) {
-    switch (method) {
-      case "POST":
-        addWatcher(id);
-        break;
-      case "PUT":
-        updateWatcher(id);
-        break;
-      case "DELETE":
-        deleteWatcher(id);
-        break;
-      default:
-        break;
-    }
-  }
-
-  private void scheduleUpdate(CallbackAlert data, String method) {
-    switch (method) {
-      case "POST":
-        callbackHandler.handlePost(data);
-        break;
-      case "PUT":
-        callbackHandler.handlePut(data);
-        break;
-      case "DELETE":
-        callbackHandler.handleDelete(data);
-        break;
-      default:
-        break;
-    }
+  private void operation(ActionType type, HttpMethod method, Consumer<CallbackAlert> operation) {
+    operations.get(type).put(method, operation);
   }
 
   private void addWatcher(@RequestBody String provisionWatcher) {
@@ -202,6 +254,44 @@ public class UpdateControllerImpl implements UpdateController {
     }
   }
 
+  // the handler always refreshes its own copy of the profile, but only the commands the update
+  // changed are dropped from the cache, and devices are reloaded only when a device resource they
+  // read changed; returns whether every part of the update was applied
+  private boolean updateProfile(String profileId, ProfileDiff diff) {
+    if (profileId != null && diff.isEmpty()) {
+      logger.debug("Profile " + profileId + " update changed no commands or resources");
+      return true;
+    }
+    updateProfile(profileId);
+    if (diff.isAll()) {
+      transforms.invalidateProfile(profileId);
+      cache.invalidateAll();
+      return true;
+    }
+    logger.debug("Profile " + profileId + " update changed " + diff + " for "
+        + diff.getDeviceIds().size() + " devices");
+    boolean applied = true;
+    if (!diff.getResources().isEmpty()) {
+      transforms.invalidateProfile(profileId);
+      for (String deviceId : diff.getDeviceIds()) {
+        try {
+          updateDevice(deviceId);
+        } catch (RuntimeException e) {
+          // left out of the applied version, so the next update reloads it again
+          logger.error("Unable to reload device " + deviceId + " for profile " + profileId
+              + ": " + e.getMessage());
+          applied = false;
+        }
+      }
+    }
+    for (String deviceId : diff.getDeviceIds()) {
+      for (String cmd : diff.getCommands()) {
+        cache.invalidateCommand(deviceId, cmd);
+      }
+    }
+    return applied;
+  }
+
   private void updateProfile(@RequestBody String profileId) {
     if (profileId != null) {
       if (update.updateProfile(profileId)) {
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.metrics;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+/**
+ * Times every mapped request from the first dispatch to completion, including time spent waiting
+ * for async command results. As the first exception resolver it also notes the exception type
+ * before the other resolvers turn it into an error response.
+ */
+@Component
+public class MetricsInterceptor extends HandlerInterceptorAdapter
+    implements HandlerExceptionResolver, Ordered {
+
+  private static final String START = MetricsInterceptor.class.getName() + ".start";
+  private static final String SERIES = MetricsInterceptor.class.getName() + ".series";
+  private static final String ERROR = MetricsInterceptor.class.getName() + ".error";
+
+  @Autowired
+  private MetricsRegistry metrics;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    // async dispatches pass through here again; keep the original start time
+    if (metrics.isEnabled() && request.getAttribute(START) == null) {
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      String name =
+          request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+      request.setAttribute(SERIES, metrics.begin(MetricsRegistry.ENDPOINT, name));
+      request.setAttribute(START, System.nanoTime());
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    Object start = request.getAttribute(START);
+    Object series = request.getAttribute(SERIES);
+    if (start == null || series == null) {
+      return;
+    }
+    request.removeAttribute(START);
+    request.removeAttribute(SERIES);
+    Throwable error = ex != null ? ex : (Throwable) request.getAttribute(ERROR);
+    ((Series) series).end(System.nanoTime() - (Long) start, error);
+  }
+
+  @Override
+  public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    request.setAttribute(ERROR, ex);
+    return null;
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Named latency series grouped by what they measure. The number of series per group is capped so
+ * that a large or changing device population cannot grow the registry without bound; past the cap,
+ * new names are folded into a shared "other" series.
+ */
+@Component
+public class MetricsRegistry {
+
+  public static final String ENDPOINT = "endpoint";
+  public static final String DEVICE = "device";
+  public static final String COMMAND = "command";
+  public static final String CALLBACK = "callback";
+
+  static final String OTHER = "other";
+
+  @Value("${service.metrics.enabled:true}")
+  private volatile boolean enabled = true;
+
+  @Value("${service.metrics.series.max:1000}")
+  private int maxSeries = 1000;
+
+  private final ConcurrentMap<String, ConcurrentMap<String, Series>> groups =
+      new ConcurrentHashMap<>();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public Series series(String group, String name) {
+    if (!enabled) {
+      return Series.DISABLED;
+    }
+    ConcurrentMap<String, Series> series =
+        groups.computeIfAbsent(group, key -> new ConcurrentHashMap<>());
+    Series existing = series.get(name);
+    if (existing != null) {
+      return existing;
+    }
+    String key = series.size() < maxSeries ? name : OTHER;
+    return series.computeIfAbsent(key, value -> new Series());
+  }
+
+  public Series begin(String group, String name) {
+    Series series = series(group, name);
+    series.begin();
+    return series;
+  }
+
+  public Collection<Series> getSeries(String group) {
+    ConcurrentMap<String, Series> series = groups.get(group);
+    return series == null ? Collections.emptyList() : series.values();
+  }
+
+  public Map<String, Map<String, Series>> getSeries() {
+    Map<String, Map<String, Series>> snapshot = new TreeMap<>();
+    groups.forEach((group, series) -> snapshot.put(group,
+        Collections.unmodifiableMap(new TreeMap<>(series))));
+    return snapshot;
+  }
+}
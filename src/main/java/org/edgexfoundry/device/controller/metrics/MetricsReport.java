@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Renders the registry and component gauges as JSON-ready maps or in the Prometheus text
+ * exposition format.
+ */
+public final class MetricsReport {
+
+  private static final String PREFIX = "device_controller_";
+  private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+  private static final String[] QUANTILE_NAMES = {"p50", "p99", "p999"};
+
+  private MetricsReport() {}
+
+  public static Map<String, Object> toMap(Map<String, Map<String, Series>> groups,
+      Map<String, Map<String, ? extends Number>> gauges) {
+    Map<String, Object> report = new LinkedHashMap<>();
+    groups.forEach((group, series) -> {
+      Map<String, Object> entries = new LinkedHashMap<>();
+      series.forEach((name, entry) -> entries.put(name, toMap(entry)));
+      report.put(group, entries);
+    });
+    report.putAll(gauges);
+    return report;
+  }
+
+  public static String toPrometheus(Map<String, Map<String, Series>> groups,
+      Map<String, Map<String, ? extends Number>> gauges) {
+    StringBuilder text = new StringBuilder(4096);
+    text.append("# TYPE " + PREFIX + "latency_seconds summary\n");
+    groups.forEach((group, series) -> series.forEach((name, entry) -> {
+      String labels = "group=\"" + escape(group) + "\",name=\"" + escape(name) + "\"";
+      LatencyHistogram.Snapshot latency = entry.getLatency();
+      for (double quantile : QUANTILES) {
+        sample(text, "latency_seconds", labels + ",quantile=\"" + quantile + "\"",
+            seconds(latency.getValueAtQuantile(quantile)));
+      }
+      sample(text, "latency_seconds_sum", labels, seconds(latency.getSum()));
+      sample(text, "latency_seconds_count", labels, latency.getCount());
+    }));
+    text.append("# TYPE " + PREFIX + "in_flight gauge\n");
+    groups.forEach((group, series) -> series.forEach((name, entry) -> sample(text, "in_flight",
+        "group=\"" + escape(group) + "\",name=\"" + escape(name) + "\"", entry.getInFlight())));
+    text.append("# TYPE " + PREFIX + "errors_total counter\n");
+    groups.forEach((group, series) -> series.forEach((name, entry) -> entry.getErrors()
+        .forEach((type, count) -> sample(text, "errors_total", "group=\"" + escape(group)
+            + "\",name=\"" + escape(name) + "\",type=\"" + escape(type) + "\"", count))));
+    gauges.forEach((component, values) -> values.forEach((key, value) -> {
+      String metric = snakeCase(component) + "_" + snakeCase(key);
+      text.append("# TYPE " + PREFIX + metric + " gauge\n");
+      sample(text, metric, null, value);
+    }));
+    return text.toString();
+  }
+
+  private static Map<String, Object> toMap(Series series) {
+    LatencyHistogram.Snapshot latency = series.getLatency();
+    Map<String, Object> latencyMillis = new LinkedHashMap<>();
+    latencyMillis.put("mean", millis(latency.getMean()));
+    for (int i = 0; i < QUANTILES.length; i++) {
+      latencyMillis.put(QUANTILE_NAMES[i], millis(latency.getValueAtQuantile(QUANTILES[i])));
+    }
+    latencyMillis.put("max", millis(latency.getMax()));
+    Map<String, Object> entry = new LinkedHashMap<>();
+    entry.put("count", latency.getCount());
+    entry.put("inFlight", series.getInFlight());
+    entry.put("errors", series.getErrors());
+    entry.put("latencyMillis", latencyMillis);
+    return entry;
+  }
+
+  private static void sample(StringBuilder text, String metric, String labels, Number value) {
+    text.append(PREFIX).append(metric);
+    if (labels != null) {
+      text.append('{').append(labels).append('}');
+    }
+    text.append(' ').append(value).append('\n');
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1e6;
+  }
+
+  private static double seconds(long nanos) {
+    return nanos / 1e9;
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  private static String snakeCase(String name) {
+    StringBuilder snake = new StringBuilder(name.length() + 8);
+    for (char c : name.toCharArray()) {
+      if (Character.isUpperCase(c)) {
+        snake.append('_').append(Character.toLowerCase(c));
+      } else {
+        snake.append(Character.isLetterOrDigit(c) ? c : '_');
+      }
+    }
+    return snake.toString();
+  }
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, in-flight count and errors by exception type for one endpoint, device, command or
+ * callback type.
+ */
+public final class Series {
+
+  static final Series DISABLED = new Series();
+
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private final LongAdder calls = new LongAdder();
+
+  private final LongAdder failures = new LongAdder();
+
+  private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+  public void begin() {
+    if (this != DISABLED) {
+      inFlight.incrementAndGet();
+    }
+  }
+
+  public void end(long nanos, Throwable error) {
+    if (this == DISABLED) {
+      return;
+    }
+    inFlight.decrementAndGet();
+    latency.record(nanos);
+    calls.increment();
+    if (error != null) {
+      failures.increment();
+      errors.computeIfAbsent(error.getClass().getSimpleName(), type -> new LongAdder())
+          .increment();
+    }
+  }
+
+  public LatencyHistogram.Snapshot getLatency() {
+    return latency.snapshot();
+  }
+
+  public long getCount() {
+    return calls.sum();
+  }
+
+  public long getErrorCount() {
+    return failures.sum();
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public Map<String, Long> getErrors() {
+    Map<String, Long> counts = new TreeMap<>();
+    errors.forEach((type, count) -> counts.put(type, count.sum()));
+    return counts;
+  }
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+import org.edgexfoundry.device.controller.callback.CallbackQueue;
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives readiness from live load signals: command queue depth, commands admitted against the
+ * admission limit, the device command error rate over a recent window and the callback backlog.
+ * Busy command threads are reported but not judged, as a fully busy pool with an empty queue is
+ * keeping up. The result is cached briefly so that load balancers can poll it at high frequency
+ * without adding load of their own.
+ */
+@Component
+public class ServiceHealth {
+
+  @Autowired
+  private CommandTaskExecutor executor;
+
+  @Autowired
+  private CallbackQueue callbacks;
+
+  @Autowired
+  private MetricsRegistry metrics;
+
+  @Autowired
+  private CommandAdmission admission;
+
+  @Value("${service.status.cache:250}")
+  private long cacheMillis = 250;
+
+  @Value("${service.status.queue.max:0.8}")
+  private double maxQueueUtilization = 0.8;
+
+  // by default the share of the admission limit open to reads, past which reads are shed
+  @Value("${service.status.admission.max:0.8}")
+  private double maxAdmissionUtilization = 0.8;
+
+  @Value("${service.status.callback.max:0.8}")
+  private double maxCallbackUtilization = 0.8;
+
+  @Value("${service.status.error.max:0.5}")
+  private double maxErrorRate = 0.5;
+
+  @Value("${service.status.error.window:30000}")
+  private long errorWindow = 30000;
+
+  // fewer commands than this in the window are too few to judge an error rate by
+  @Value("${service.status.error.min:20}")
+  private long minCommands = 20;
+
+  private final Deque<long[]> samples = new ArrayDeque<>();
+
+  private volatile ServiceStatus status;
+
+  public ServiceStatus getStatus() {
+    ServiceStatus current = status;
+    long now = System.currentTimeMillis();
+    if (current != null && now - current.getTimestamp() < cacheMillis) {
+      return current;
+    }
+    synchronized (this) {
+      current = status;
+      if (current == null || now - current.getTimestamp() >= cacheMillis) {
+        current = compute(now);
+        status = current;
+      }
+      return current;
+    }
+  }
+
+  private ServiceStatus compute(long now) {
+    double queue = ratio(executor.getQueueSize(), executor.getQueueCapacity());
+    double busy = ratio(executor.getActiveCount(), executor.getMaxPoolSize());
+    double errors = errorRate(now);
+    double backlog = callbacks.isEnabled() ? ratio(callbacks.getBacklog(), callbacks.getCapacity())
+        : 0;
+    double admitted =
+        admission.isEnabled() ? Math.min(1, admission.getInFlight() / admission.getLimit()) : 0;
+
+    List<String> reasons = new ArrayList<>();
+    if (queue >= maxQueueUtilization) {
+      reasons.add("Command queue " + percent(queue) + " full");
+    }
+    if (admitted >= maxAdmissionUtilization) {
+      reasons.add("Command admission " + percent(admitted) + " used");
+    }
+    if (errors >= maxErrorRate) {
+      reasons.add("Device command error rate " + percent(errors));
+    }
+    if (backlog >= maxCallbackUtilization) {
+      reasons.add("Callback queue " + percent(backlog) + " full");
+    }
+    return new ServiceStatus(reasons.isEmpty(), Collections.unmodifiableList(reasons), queue, busy,
+        errors, backlog, admitted, now);
+  }
+
+  // error rate across all commands since the last sample taken before the window started
+  private double errorRate(long now) {
+    long count = 0;
+    long failed = 0;
+    for (Series series : metrics.getSeries(MetricsRegistry.COMMAND)) {
+      count += series.getCount();
+      failed += series.getErrorCount();
+    }
+    samples.addLast(new long[] {now, count, failed});
+    while (samples.size() > 2) {
+      Iterator<long[]> sample = samples.iterator();
+      sample.next();
+      if (now - sample.next()[0] < errorWindow) {
+        break;
+      }
+      samples.removeFirst();
+    }
+    long[] oldest = samples.peekFirst();
+    long commands = count - oldest[1];
+    return commands < minCommands ? 0 : (double) (failed - oldest[2]) / commands;
+  }
+
+  private static double ratio(int value, int capacity) {
+    return capacity <= 0 ? 0 : Math.min(1, (double) value / capacity);
+  }
+
+  private static String percent(double ratio) {
+    return Math.round(ratio * 100) + "%";
+  }
+}
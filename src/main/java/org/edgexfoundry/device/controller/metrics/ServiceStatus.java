@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.metrics;
+
+import java.util.List;
+
+/**
+ * Point-in-time readiness of the device service and the load signals it was derived from.
+ */
+public class ServiceStatus {
+
+  private final boolean ready;
+
+  private final List<String> reasons;
+
+  private final double queueUtilization;
+
+  private final double executorUtilization;
+
+  private final double errorRate;
+
+  private final double callbackUtilization;
+
+  private final double admissionUtilization;
+
+  private final long timestamp;
+
+  public ServiceStatus(boolean ready, List<String> reasons, double queueUtilization,
+      double executorUtilization, double errorRate, double callbackUtilization,
+      double admissionUtilization, long timestamp) {
+    this.ready = ready;
+    this.reasons = reasons;
+    this.queueUtilization = queueUtilization;
+    this.executorUtilization = executorUtilization;
+    this.errorRate = errorRate;
+    this.callbackUtilization = callbackUtilization;
+    this.admissionUtilization = admissionUtilization;
+    this.timestamp = timestamp;
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public List<String> getReasons() {
+    return reasons;
+  }
+
+  public double getQueueUtilization() {
+    return queueUtilization;
+  }
+
+  public double getExecutorUtilization() {
+    return executorUtilization;
+  }
+
+  public double getErrorRate() {
+    return errorRate;
+  }
+
+  public double getCallbackUtilization() {
+    return callbackUtilization;
+  }
+
+  public double getAdmissionUtilization() {
+    return admissionUtilization;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+}
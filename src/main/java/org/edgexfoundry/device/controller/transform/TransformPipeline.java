@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.transform;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+import org.edgexfoundry.domain.meta.PropertyValue;
+
+/**
+ * The mask, shift, base, scale and offset of a profile property value, parsed once when the
+ * profile is first used rather than on every reading. The steps run in the order ObjectTransform
+ * applies them: integer readings are masked then shifted (left for a positive shift, right for a
+ * negative one) as unbounded integers, so unsigned 64 bit readings and masks keep their high bit;
+ * the result is then raised as a power of the base, scaled and offset. Readings that are not
+ * numbers are passed through unchanged.
+ */
+public final class TransformPipeline {
+
+  static final TransformPipeline IDENTITY =
+      new TransformPipeline(BigInteger.ZERO, 0, 0, 1, 0, false);
+
+  private final BigInteger mask;
+
+  private final int shift;
+
+  private final double base;
+
+  private final double scale;
+
+  private final double offset;
+
+  private final boolean integral;
+
+  private TransformPipeline(BigInteger mask, int shift, double base, double scale, double offset,
+      boolean integral) {
+    this.mask = mask;
+    this.shift = shift;
+    this.base = base;
+    this.scale = scale;
+    this.offset = offset;
+    this.integral = integral;
+  }
+
+  public static TransformPipeline compile(PropertyValue value) {
+    if (value == null) {
+      return IDENTITY;
+    }
+    TransformPipeline pipeline = new TransformPipeline(parseInteger(value.getMask()),
+        parseInteger(value.getShift()).intValue(), parseDouble(value.getBase(), 0),
+        parseDouble(value.getScale(), 1), parseDouble(value.getOffset(), 0),
+        isIntegral(value.getType()));
+    return pipeline.isIdentity() ? IDENTITY : pipeline;
+  }
+
+  public boolean isIdentity() {
+    return mask.signum() == 0 && shift == 0 && base == 0 && scale == 1 && offset == 0;
+  }
+
+  public String apply(String raw) {
+    if (raw == null || isIdentity()) {
+      return raw;
+    }
+    BigDecimal value;
+    try {
+      if (mask.signum() != 0 || shift != 0) {
+        BigInteger bits = new BigInteger(raw.trim());
+        if (mask.signum() != 0) {
+          bits = bits.and(mask);
+        }
+        if (shift != 0) {
+          bits = shift > 0 ? bits.shiftLeft(shift) : bits.shiftRight(-shift);
+        }
+        value = new BigDecimal(bits);
+      } else {
+        value = new BigDecimal(raw.trim());
+      }
+    } catch (NumberFormatException e) {
+      return raw;
+    }
+    if (base != 0) {
+      value = BigDecimal.valueOf(Math.pow(base, value.doubleValue()));
+    }
+    if (!integral) {
+      return Double.toString(value.doubleValue() * scale + offset);
+    }
+    // kept exact so 64 bit readings are not rounded through a double
+    return value.multiply(BigDecimal.valueOf(scale)).add(BigDecimal.valueOf(offset))
+        .setScale(0, RoundingMode.HALF_UP).toBigInteger().toString();
+  }
+
+  private static boolean isIntegral(String type) {
+    if (type == null) {
+      return false;
+    }
+    String name = type.trim().toLowerCase();
+    return name.startsWith("int") || name.startsWith("uint") || name.equals("long");
+  }
+
+  // hexadecimal or decimal, and unbounded so masks above Long.MAX_VALUE are kept
+  private static BigInteger parseInteger(String text) {
+    if (text == null || text.trim().isEmpty()) {
+      return BigInteger.ZERO;
+    }
+    String trimmed = text.trim();
+    try {
+      if (trimmed.startsWith("0x") || trimmed.startsWith("0X")) {
+        return new BigInteger(trimmed.substring(2), 16);
+      }
+      return new BigInteger(trimmed);
+    } catch (NumberFormatException e) {
+      return BigInteger.ZERO;
+    }
+  }
+
+  private static double parseDouble(String text, double defaultValue) {
+    if (text == null || text.trim().isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return Double.parseDouble(text.trim());
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+}
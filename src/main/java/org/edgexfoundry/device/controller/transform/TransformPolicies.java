@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.transform;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.edgexfoundry.device.controller.command.CommandKey;
+import org.edgexfoundry.device.controller.command.CommandResponseCache;
+import org.edgexfoundry.device.controller.command.ServiceDevices;
+import org.edgexfoundry.domain.meta.Device;
+import org.edgexfoundry.domain.meta.DeviceObject;
+import org.edgexfoundry.domain.meta.DeviceProfile;
+import org.edgexfoundry.service.transform.ObjectTransform;
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Optional per-device and per-command transformation of the readings returned by the command
+ * endpoints. The global ObjectTransform flag is left alone, so scheduled reads and the events
+ * handlers send to core data keep following it; while it is on, handlers transform every reading
+ * themselves and nothing is done here. While it is off, handlers return raw readings and, with
+ * service.transform.pipeline.enabled, the readings a command returns are transformed by
+ * pipelines compiled once per device resource, unless the most specific policy set for the
+ * device and command, then the device, then the command, bypasses them. Devices and commands
+ * listed in service.transform.bypass.devices and service.transform.bypass.commands start out
+ * bypassed; everything else is transformed.
+ */
+@Component
+public class TransformPolicies {
+
+  private static final EdgeXLogger logger =
+      EdgeXLoggerFactory.getEdgeXLogger(TransformPolicies.class);
+
+  @Autowired
+  private ObjectTransform transform;
+
+  @Autowired
+  private ServiceDevices devices;
+
+  @Autowired
+  private CommandResponseCache cache;
+
+  @Value("${service.transform.pipeline.enabled:false}")
+  private boolean enabled;
+
+  @Value("${service.transform.bypass.devices:}")
+  private String bypassDevices = "";
+
+  @Value("${service.transform.bypass.commands:}")
+  private String bypassCommands = "";
+
+  private final ConcurrentMap<String, Boolean> devicePolicies = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<String, Boolean> commandPolicies = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<CommandKey, Boolean> deviceCommandPolicies =
+      new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<String, DevicePipelines> pipelines = new ConcurrentHashMap<>();
+
+  // bumped by every invalidation so a pipeline compiled from an older device is not kept
+  private final AtomicLong generation = new AtomicLong();
+
+  @PostConstruct
+  public void initialize() {
+    for (String deviceId : StringUtils.commaDelimitedListToSet(bypassDevices)) {
+      devicePolicies.put(deviceId.trim(), false);
+    }
+    for (String cmd : StringUtils.commaDelimitedListToSet(bypassCommands)) {
+      commandPolicies.put(cmd.trim(), false);
+    }
+    if (enabled) {
+      logger.info("Transforming command readings per device and command, bypassing devices "
+          + devicePolicies.keySet() + " and commands " + commandPolicies.keySet());
+      if (transform.getTransformData()) {
+        logger.warn("Per device and command transforms only apply while transformData is off");
+      }
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setTransformData(boolean transformData) {
+    transform.setTransformData(transformData);
+    cache.invalidateAll();
+  }
+
+  // a null policy removes the one set, deferring to the less specific policies
+  public void setDevicePolicy(String deviceId, Boolean transform) {
+    update(devicePolicies, deviceId, transform);
+  }
+
+  public void setCommandPolicy(String cmd, Boolean transform) {
+    update(commandPolicies, cmd, transform);
+  }
+
+  public void setPolicy(String deviceId, String cmd, Boolean transform) {
+    update(deviceCommandPolicies, new CommandKey(deviceId, cmd, null), transform);
+  }
+
+  // readings are always transformed while the handlers transform them
+  public boolean shouldTransform(String deviceId, String cmd) {
+    if (transform.getTransformData()) {
+      return true;
+    }
+    if (!deviceCommandPolicies.isEmpty()) {
+      Boolean policy = deviceCommandPolicies.get(new CommandKey(deviceId, cmd, null));
+      if (policy != null) {
+        return policy;
+      }
+    }
+    Boolean policy = devicePolicies.get(deviceId);
+    if (policy == null) {
+      policy = commandPolicies.get(cmd);
+    }
+    return policy == null || policy;
+  }
+
+  public Map<String, String> apply(String deviceId, String cmd, Map<String, String> values) {
+    if (!enabled || values == null || values.isEmpty() || transform.getTransformData()
+        || !shouldTransform(deviceId, cmd)) {
+      return values;
+    }
+    Map<String, TransformPipeline> resources = getPipelines(deviceId);
+    Map<String, String> transformed = null;
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      TransformPipeline pipeline = resources.get(entry.getKey());
+      if (pipeline != null) {
+        if (transformed == null) {
+          transformed = new LinkedHashMap<>(values);
+        }
+        transformed.put(entry.getKey(), pipeline.apply(entry.getValue()));
+      }
+    }
+    return transformed == null ? values : transformed;
+  }
+
+  // the device snapshot is refreshed first so the pipelines are recompiled from the new profile
+  public void invalidateProfile(String profileId) {
+    if (profileId == null) {
+      return;
+    }
+    devices.invalidate();
+    generation.incrementAndGet();
+    if (pipelines.values().removeIf(device -> profileId.equals(device.profileId))) {
+      logger.debug("Invalidated transform pipelines for profile " + profileId);
+    }
+  }
+
+  public void invalidateDevice(String deviceId) {
+    generation.incrementAndGet();
+    pipelines.remove(deviceId);
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    pipelines.clear();
+  }
+
+  public Map<String, Object> getPolicies() {
+    Map<String, Object> policies = new LinkedHashMap<>();
+    policies.put("enabled", enabled);
+    policies.put("transformData", transform.getTransformData());
+    policies.put("devices", new HashMap<>(devicePolicies));
+    policies.put("commands", new HashMap<>(commandPolicies));
+    Map<String, Boolean> deviceCommands = new HashMap<>();
+    deviceCommandPolicies.forEach(
+        (key, policy) -> deviceCommands.put(key.getDeviceId() + "/" + key.getCommand(), policy));
+    policies.put("deviceCommands", deviceCommands);
+    return policies;
+  }
+
+  private Map<String, TransformPipeline> getPipelines(String deviceId) {
+    DevicePipelines cached = pipelines.get(deviceId);
+    if (cached != null) {
+      return cached.resources;
+    }
+    long current = generation.get();
+    Device device = devices.getDevice(deviceId);
+    if (device == null || device.getProfile() == null) {
+      return Collections.emptyMap();
+    }
+    DeviceProfile profile = device.getProfile();
+    DevicePipelines compiled = new DevicePipelines(
+        profile.getId() == null ? profile.getName() : profile.getId(), compile(profile));
+    // dropped again if an invalidation raced with the compile
+    if (pipelines.putIfAbsent(deviceId, compiled) == null && generation.get() != current) {
+      pipelines.remove(deviceId, compiled);
+    }
+    return compiled.resources;
+  }
+
+  // only resources whose values actually change are kept
+  private static Map<String, TransformPipeline> compile(DeviceProfile profile) {
+    if (profile.getDeviceResources() == null) {
+      return Collections.emptyMap();
+    }
+    Map<String, TransformPipeline> compiled = new HashMap<>();
+    for (DeviceObject resource : profile.getDeviceResources()) {
+      if (resource.getProperties() == null) {
+        continue;
+      }
+      TransformPipeline pipeline = TransformPipeline.compile(resource.getProperties().getValue());
+      if (!pipeline.isIdentity()) {
+        compiled.put(resource.getName(), pipeline);
+      }
+    }
+    return compiled;
+  }
+
+  private <K> void update(ConcurrentMap<K, Boolean> policies, K key, Boolean transform) {
+    if (transform == null) {
+      policies.remove(key);
+    } else {
+      policies.put(key, transform);
+    }
+    // cached readings may have been transformed under the previous policy
+    cache.invalidateAll();
+  }
+
+  private static final class DevicePipelines {
+
+    private final String profileId;
+
+    private final Map<String, TransformPipeline> resources;
+
+    private DevicePipelines(String profileId, Map<String, TransformPipeline> resources) {
+      this.profileId = profileId;
+      this.resources = resources;
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.tuning;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.edgexfoundry.device.controller.command.CommandResponseCache;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.command.DeviceConcurrencyLimiter;
+import org.edgexfoundry.device.controller.discovery.DiscoveryJobs;
+import org.edgexfoundry.device.controller.metrics.MetricsRegistry;
+import org.edgexfoundry.exception.controller.ClientException;
+import org.edgexfoundry.support.logging.client.EdgeXLogger;
+import org.edgexfoundry.support.logging.client.EdgeXLoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Performance settings that can be changed while the service runs, named after the properties
+ * that configure them at startup. A change is validated in full before any of it is applied, so
+ * a request with one bad value changes nothing; changes are lost on restart.
+ */
+@Component
+public class RuntimeTuning {
+
+  private static final EdgeXLogger logger = EdgeXLoggerFactory.getEdgeXLogger(RuntimeTuning.class);
+
+  static final String POOL_SIZE = "service.command.pool.size";
+  static final String POOL_MAX = "service.command.pool.max";
+
+  @Autowired
+  private CommandTaskExecutor executor;
+
+  @Autowired
+  private CommandTimeouts timeouts;
+
+  @Autowired
+  private CommandResponseCache cache;
+
+  @Autowired
+  private DeviceConcurrencyLimiter limiter;
+
+  @Autowired
+  private DiscoveryJobs discovery;
+
+  @Autowired
+  private MetricsRegistry metrics;
+
+  private final Map<String, Setting<?>> settings = new LinkedHashMap<>();
+
+  @PostConstruct
+  public void initialize() {
+    // the pool sizes depend on each other, so they are applied together by apply
+    add(POOL_SIZE, Integer.class, 1, executor::getCorePoolSize, null);
+    add(POOL_MAX, Integer.class, 1, executor::getMaxPoolSize, null);
+    add("service.command.timeout", Long.class, 0, timeouts::getDefaultTimeout,
+        timeouts::setDefaultTimeout);
+    add("service.command.cache.enabled", Boolean.class, 0, cache::isEnabled, cache::setEnabled);
+    add("service.command.cache.ttl", Long.class, 0, cache::getDefaultTtl, cache::setDefaultTtl);
+    add("service.command.device.concurrency", Integer.class, 0, limiter::getLimit,
+        limiter::setLimit);
+    add("service.command.device.wait", Long.class, 0, limiter::getMaxWait, limiter::setMaxWait);
+    add("service.discovery.rate", Double.class, 0, discovery::getRate, discovery::setRate);
+    add("service.metrics.enabled", Boolean.class, 0, metrics::isEnabled, metrics::setEnabled);
+  }
+
+  public synchronized Map<String, Object> getValues() {
+    Map<String, Object> values = new LinkedHashMap<>();
+    settings.forEach((name, setting) -> values.put(name, setting.getter.get()));
+    return values;
+  }
+
+  public synchronized Map<String, Object> apply(Map<String, Object> changes) {
+    if (changes == null || changes.isEmpty()) {
+      throw new ClientException("No settings supplied");
+    }
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (Map.Entry<String, Object> change : changes.entrySet()) {
+      Setting<?> setting = settings.get(change.getKey());
+      if (setting == null) {
+        throw new ClientException("Unknown setting " + change.getKey());
+      }
+      values.put(change.getKey(), setting.convert(change.getKey(), change.getValue()));
+    }
+    int poolSize = (Integer) values.getOrDefault(POOL_SIZE, executor.getCorePoolSize());
+    int poolMax = (Integer) values.getOrDefault(POOL_MAX, executor.getMaxPoolSize());
+    if (poolSize > poolMax) {
+      throw new ClientException(POOL_SIZE + " must not exceed " + POOL_MAX);
+    }
+    if (values.containsKey(POOL_SIZE) || values.containsKey(POOL_MAX)) {
+      if (executor.isVirtual()) {
+        throw new ClientException("Virtual thread executors are not sized by pool settings");
+      }
+      executor.resize(poolSize, poolMax);
+    }
+    values.forEach((name, value) -> settings.get(name).set(value));
+    logger.info("Applied runtime settings: " + values);
+    return getValues();
+  }
+
+  private <T> void add(String name, Class<T> type, long min, Supplier<T> getter,
+      Consumer<T> setter) {
+    settings.put(name, new Setting<>(type, min, getter, setter));
+  }
+
+  private static final class Setting<T> {
+
+    private final Class<T> type;
+
+    private final long min;
+
+    private final Supplier<T> getter;
+
+    private final Consumer<T> setter;
+
+    private Setting(Class<T> type, long min, Supplier<T> getter, Consumer<T> setter) {
+      this.type = type;
+      this.min = min;
+      this.getter = getter;
+      this.setter = setter;
+    }
+
+    private Object convert(String name, Object value) {
+      try {
+        Object converted = type.equals(Boolean.class) ? toBoolean(value) : toNumber(value);
+        if (converted instanceof Number && ((Number) converted).doubleValue() < min) {
+          throw new ClientException(name + " must be at least " + min);
+        }
+        return converted;
+      } catch (NumberFormatException | ArithmeticException e) {
+        throw new ClientException("Invalid value for " + name + ": " + value);
+      }
+    }
+
+    private void set(Object value) {
+      if (setter != null) {
+        setter.accept(type.cast(value));
+      }
+    }
+
+    private Boolean toBoolean(Object value) {
+      String text = String.valueOf(value);
+      if (!"true".equalsIgnoreCase(text) && !"false".equalsIgnoreCase(text)) {
+        throw new NumberFormatException(text);
+      }
+      return Boolean.valueOf(text);
+    }
+
+    private Number toNumber(Object value) {
+      if (value == null || value instanceof Boolean) {
+        throw new NumberFormatException(String.valueOf(value));
+      }
+      if (type.equals(Double.class)) {
+        double real = Double.parseDouble(value.toString());
+        if (Double.isNaN(real) || Double.isInfinite(real)) {
+          throw new NumberFormatException(value.toString());
+        }
+        return real;
+      }
+      // whole numbers only, rejecting fractions and values out of range of the type
+      long whole = new BigDecimal(value.toString()).longValueExact();
+      if (type.equals(Integer.class)) {
+        return Math.toIntExact(whole);
+      }
+      return whole;
+    }
+  }
+}
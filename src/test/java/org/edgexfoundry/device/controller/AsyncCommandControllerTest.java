@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.command.DeviceCommandRunner;
+import org.edgexfoundry.device.controller.impl.AsyncCommandControllerImpl;
+import org.edgexfoundry.exception.controller.NotFoundException;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@Category(RequiresNone.class)
+public class AsyncCommandControllerTest {
+
+  private static final String TEST_DEVICE_ID = "test_device";
+  private static final String TEST_CMD = "test_cmd";
+  private static final String TEST_ARGS = "test_arg";
+  private static final Map<String, String> TEST_RESULT =
+      Collections.singletonMap("test_resource", "test_value");
+
+  @InjectMocks
+  private AsyncCommandControllerImpl controller;
+
+  @Mock
+  private CommandTaskExecutor executor;
+
+  @Mock
+  private DeviceCommandRunner runner;
+
+  @Spy
+  private CommandAdmission admission;
+
+  @Spy
+  private CommandTimeouts timeouts;
+
+  @Mock
+  private HttpServletRequest request;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  public void testGetCommand() {
+    when(request.getMethod()).thenReturn("GET");
+    CompletableFuture<Map<String, String>> response = new CompletableFuture<>();
+    when(runner.submit(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, true, executor)).thenReturn(response);
+    DeferredResult<Map<String, String>> result =
+        controller.getCommand(request, TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    assertEquals("Command held before completing", 1, admission.getInFlight());
+    response.complete(TEST_RESULT);
+    assertEquals("Command response not returned", TEST_RESULT, result.getResult());
+    assertEquals("Command still admitted", 0, admission.getInFlight());
+  }
+
+  @Test
+  public void testGetCommandError() {
+    when(request.getMethod()).thenReturn("PUT");
+    CompletableFuture<Map<String, String>> response = new CompletableFuture<>();
+    response.completeExceptionally(new NotFoundException("Device", TEST_DEVICE_ID));
+    when(runner.submit(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, false, executor))
+        .thenReturn(response);
+    DeferredResult<Map<String, String>> result =
+        controller.getCommand(request, TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    assertTrue("Command error not returned", result.getResult() instanceof NotFoundException);
+  }
+
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.edgexfoundry.device.controller.command.BatchCommand;
+import org.edgexfoundry.device.controller.command.BatchCommandResult;
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandFanOut;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.command.DeviceCommandRunner;
+import org.edgexfoundry.device.controller.command.DeviceResult;
+import org.edgexfoundry.device.controller.impl.BatchCommandControllerImpl;
+import org.edgexfoundry.exception.controller.ClientException;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class BatchCommandControllerTest {
+
+  private static final String TEST_DEVICE_ID = "test_device";
+  private static final String TEST_CMD = "test_cmd";
+  private static final String TEST_ARGS = "test_arg";
+  private static final String TEST_ID = "test_id";
+  private static final Map<String, String> TEST_RESULT =
+      Collections.singletonMap("test_resource", "test_value");
+
+  @InjectMocks
+  private BatchCommandControllerImpl controller;
+
+  @Mock
+  private CommandTaskExecutor executor;
+
+  @Mock
+  private DeviceCommandRunner runner;
+
+  @Spy
+  private CommandFanOut fanOut;
+
+  @Spy
+  private CommandAdmission admission;
+
+  @Spy
+  private CommandTimeouts timeouts;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(controller, "maxCommands", 2);
+    ReflectionTestUtils.setField(fanOut, "deviceTimeout", 5000L);
+    ReflectionTestUtils.setField(fanOut, "timeout", 5000L);
+    fanOut.initialize();
+  }
+
+  @After
+  public void cleanup() {
+    fanOut.shutdown();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGetBatchCommands() throws Exception {
+    when(runner.run(TEST_DEVICE_ID, TEST_CMD, null, true)).thenReturn(TEST_RESULT);
+    when(runner.run(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, false))
+        .thenThrow(new IllegalStateException());
+    List<BatchCommandResult> results = (List<BatchCommandResult>) controller
+        .getBatchCommands(
+            Arrays.asList(new BatchCommand(TEST_ID, TEST_DEVICE_ID, TEST_CMD, null, null),
+                new BatchCommand(null, TEST_DEVICE_ID, TEST_CMD, "PUT", TEST_ARGS)))
+        .getCallable().call();
+    assertEquals("Not every command answered", 2, results.size());
+    assertEquals("Command id not kept", TEST_ID, results.get(0).getId());
+    assertEquals("Command response not returned", TEST_RESULT, results.get(0).getValues());
+    assertEquals("Command index not used as id", "1", results.get(1).getId());
+    assertEquals("Command failure not reported", DeviceResult.Status.FAILED,
+        results.get(1).getStatus());
+    assertEquals("Admission permit not released", 0, admission.getInFlight());
+  }
+
+  @Test
+  public void testGetBatchCommandsTimeout() {
+    assertEquals("Batch timeout not derived from the command timeout", Long.valueOf(120000),
+        controller.getBatchCommands(Collections
+            .singletonList(new BatchCommand(TEST_ID, TEST_DEVICE_ID, TEST_CMD, null, null)))
+            .getTimeout());
+  }
+
+  @Test(expected = ClientException.class)
+  public void testGetBatchCommandsEmpty() {
+    controller.getBatchCommands(Collections.<BatchCommand>emptyList());
+  }
+
+  @Test(expected = ClientException.class)
+  public void testGetBatchCommandsMissingDevice() {
+    controller.getBatchCommands(
+        Collections.singletonList(new BatchCommand(TEST_ID, null, TEST_CMD, null, null)));
+  }
+
+  @Test(expected = ClientException.class)
+  public void testGetBatchCommandsOverLimit() {
+    BatchCommand batchCommand = new BatchCommand(null, TEST_DEVICE_ID, TEST_CMD, null, null);
+    controller.getBatchCommands(Arrays.asList(batchCommand, batchCommand, batchCommand));
+  }
+}
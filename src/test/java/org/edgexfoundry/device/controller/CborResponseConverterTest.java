@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.edgexfoundry.device.controller.impl.CborResponseConverter;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+@Category(RequiresNone.class)
+public class CborResponseConverterTest {
+
+  private static final Type RESULT_TYPE =
+      new ParameterizedTypeReference<Map<String, String>>() {}.getType();
+
+  private final CborResponseConverter converter = new CborResponseConverter();
+
+  @Test
+  public void testCanWrite() {
+    assertTrue("Command result not written", converter.canWrite(RESULT_TYPE, Map.class,
+        CborResponseConverter.APPLICATION_CBOR));
+    assertFalse("Non string map written", converter.canWrite(
+        new ParameterizedTypeReference<Map<String, Object>>() {}.getType(), Map.class,
+        CborResponseConverter.APPLICATION_CBOR));
+    assertFalse("Request read", converter.canRead(RESULT_TYPE, null,
+        CborResponseConverter.APPLICATION_CBOR));
+  }
+
+  @Test
+  public void testWrite() throws Exception {
+    Map<String, String> result = new LinkedHashMap<>();
+    result.put("temp", "21.5");
+    result.put("name", "\u00e9\ud83d\ude00");
+    result.put("unset", null);
+    MockHttpOutputMessage message = new MockHttpOutputMessage();
+    converter.write(result, RESULT_TYPE, CborResponseConverter.APPLICATION_CBOR, message);
+    assertArrayEquals("Result not encoded", new byte[] {(byte) 0xa3, 0x64, 't', 'e', 'm', 'p',
+        0x64, '2', '1', '.', '5', 0x64, 'n', 'a', 'm', 'e', 0x66, (byte) 0xc3, (byte) 0xa9,
+        (byte) 0xf0, (byte) 0x9f, (byte) 0x98, (byte) 0x80, 0x65, 'u', 'n', 's', 'e', 't',
+        (byte) 0xf6}, message.getBodyAsBytes());
+    assertEquals("Content type not set", CborResponseConverter.APPLICATION_CBOR,
+        message.getHeaders().getContentType());
+  }
+
+  @Test
+  public void testWriteLarge() throws Exception {
+    char[] chars = new char[40000];
+    Arrays.fill(chars, '\u00e9');
+    String value = new String(chars);
+    MockHttpOutputMessage message = new MockHttpOutputMessage();
+    converter.write(Collections.singletonMap("k", value), RESULT_TYPE,
+        CborResponseConverter.APPLICATION_CBOR, message);
+    byte[] body = message.getBodyAsBytes();
+    byte[] expected = value.getBytes(StandardCharsets.UTF_8);
+    assertEquals("Length not encoded in 4 bytes", 0x7a, body[3] & 0xff);
+    assertEquals("Body length wrong", 8 + expected.length, body.length);
+    assertArrayEquals("Large value not encoded", expected,
+        Arrays.copyOfRange(body, 8, body.length));
+  }
+}
@@ -18,6 +18,32 @@
 
 package org.edgexfoundry.device.controller;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandArguments;
+import org.edgexfoundry.device.controller.command.CommandFanOut;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.command.DeviceBusyException;
+import org.edgexfoundry.device.controller.command.DeviceCommandRunner;
+import org.edgexfoundry.device.controller.command.FanOutResult;
+import org.edgexfoundry.device.controller.command.FanOutSummary;
+import org.edgexfoundry.device.controller.command.ServiceDevices;
 import org.edgexfoundry.device.controller.impl.CommandControllerImpl;
 import org.edgexfoundry.service.handler.CommandHandler;
 import org.edgexfoundry.test.category.RequiresNone;
@@ -27,6 +53,11 @@ import org.junit.experimental.categories.Category;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 @Category(RequiresNone.class)
 public class CommandControllerTest {
@@ -34,6 +65,8 @@ public class CommandControllerTest {
   private static final String TEST_DEVICE_ID = "test_device";
   private static final String TEST_CMD = "test_cmd";
   private static final String TEST_ARGS = "test_arg";
+  private static final Map<String, String> TEST_RESULT =
+      Collections.singletonMap("test_resource", "test_value");
 
   @InjectMocks
   private CommandControllerImpl controller;
@@ -41,19 +74,157 @@ public class CommandControllerTest {
   @Mock
   private CommandHandler command;
 
+  @Mock
+  private CommandTaskExecutor executor;
+
+  @Mock
+  private DeviceCommandRunner runner;
+
+  @Mock
+  private ServiceDevices devices;
+
+  @Mock
+  private CommandFanOut fanOut;
+
+  @Spy
+  private CommandAdmission admission;
+
+  @Spy
+  private CommandTimeouts timeouts;
+
+  @Mock
+  private CommandArguments commandArguments;
+
+  @Mock
+  private HttpServletRequest request;
+
   @Before
   public void setup() {
     MockitoAnnotations.initMocks(this);
   }
 
   @Test
-  public void testGetCommand() {
-    controller.getCommand(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+  public void testGetCommand() throws Exception {
+    when(request.getMethod()).thenReturn("GET");
+    when(runner.run(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, true)).thenReturn(TEST_RESULT);
+    WebAsyncTask<Map<String, String>> task =
+        controller.getCommand(request, TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    assertEquals("Command not run on the command executor", executor, task.getExecutor());
+    assertEquals("Default timeout not applied", Long.valueOf(60000), task.getTimeout());
+    assertEquals("Command response not returned", TEST_RESULT, task.getCallable().call());
+  }
+
+  @Test
+  public void testGetCommandTimeout() {
+    when(request.getMethod()).thenReturn("GET");
+    ReflectionTestUtils.setField(timeouts, "environment",
+        new MockEnvironment().withProperty("service.command.timeout." + TEST_CMD, "500"));
+    WebAsyncTask<Map<String, String>> task =
+        controller.getCommand(request, TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    assertEquals("Command timeout not applied", Long.valueOf(500), task.getTimeout());
+  }
+
+  @Test
+  public void testGetCommandPut() throws Exception {
+    when(request.getMethod()).thenReturn("PUT");
+    when(runner.run(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, false)).thenReturn(TEST_RESULT);
+    WebAsyncTask<Map<String, String>> task =
+        controller.getCommand(request, TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    assertEquals("Command response not returned", TEST_RESULT, task.getCallable().call());
   }
 
   @Test
-  public void testGetCommands() {
-    controller.getCommands(TEST_CMD, TEST_ARGS);
+  public void testGetCommandsNotStrict() throws Exception {
+    when(request.getMethod()).thenReturn("PUT");
+    when(command.getResponses(TEST_CMD, TEST_ARGS)).thenReturn(TEST_RESULT);
+    WebAsyncTask<Map<String, String>> task = controller.getCommands(request, TEST_CMD, TEST_ARGS);
+    assertEquals("Command responses not returned", TEST_RESULT, task.getCallable().call());
+    verify(commandArguments, never()).parse(TEST_ARGS);
+  }
+
+  @Test
+  public void testGetCommands() throws Exception {
+    when(request.getMethod()).thenReturn("GET");
+    when(command.getResponses(TEST_CMD, TEST_ARGS)).thenReturn(TEST_RESULT);
+    WebAsyncTask<Map<String, String>> task = controller.getCommands(request, TEST_CMD, TEST_ARGS);
+    assertEquals("Command not run on the command executor", executor, task.getExecutor());
+    assertEquals("Command responses not returned", TEST_RESULT, task.getCallable().call());
+  }
+
+  @Test
+  public void testGetCommandsFanOut() throws Exception {
+    ReflectionTestUtils.setField(controller, "fanOutEnabled", true);
+    when(request.getMethod()).thenReturn("PUT");
+    when(devices.getDeviceIds(TEST_CMD)).thenReturn(Collections.singletonList(TEST_DEVICE_ID));
+    when(fanOut.collect(anyListOf(String.class), any(CommandFanOut.DeviceCommand.class)))
+        .thenReturn(CompletableFuture.completedFuture(new FanOutResult(TEST_RESULT,
+            new FanOutSummary(1, 1, 0, Collections.<String>emptyList(), 0))));
+    WebAsyncTask<Map<String, String>> task = controller.getCommands(request, TEST_CMD, TEST_ARGS);
+    assertEquals("Command responses not returned", TEST_RESULT, task.getCallable().call());
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void testGetCommandShed() {
+    when(request.getMethod()).thenReturn("GET");
+    ReflectionTestUtils.setField(admission, "limit", 1.0);
+    controller.getCommand(request, TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    controller.getCommand(request, TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+  }
+
+  @Test
+  public void testGetCommandDeviceBusy() throws Exception {
+    when(request.getMethod()).thenReturn("GET");
+    when(runner.run(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, true))
+        .thenThrow(new DeviceBusyException(TEST_DEVICE_ID));
+    try {
+      controller.getCommand(request, TEST_DEVICE_ID, TEST_CMD, TEST_ARGS).getCallable().call();
+      fail("Busy device not rejected");
+    } catch (DeviceBusyException e) {
+      assertEquals("Busy device treated as overload", 64, admission.getLimit(), 0);
+    }
+  }
+
+  @Test
+  public void testStreamCommands() {
+    when(request.getMethod()).thenReturn("GET");
+    when(devices.getDeviceIds(TEST_CMD)).thenReturn(Collections.singletonList(TEST_DEVICE_ID));
+    when(fanOut.execute(anyListOf(String.class), any(CommandFanOut.DeviceCommand.class), any()))
+        .thenReturn(CompletableFuture.completedFuture(
+            new FanOutSummary(1, 1, 0, Collections.<String>emptyList(), 0)));
+    ResponseBodyEmitter emitter = controller.streamCommands(request, TEST_CMD, TEST_ARGS);
+    assertNotNull("No stream returned", emitter);
+    assertEquals("Admission permit not released", 0, admission.getInFlight());
+  }
+
+  @Test
+  public void testStreamCommandsFailed() {
+    when(request.getMethod()).thenReturn("GET");
+    RejectedExecutionException rejected = new RejectedExecutionException("test_rejection");
+    CompletableFuture<FanOutSummary> summary = new CompletableFuture<>();
+    summary.completeExceptionally(rejected);
+    when(fanOut.execute(anyListOf(String.class), any(CommandFanOut.DeviceCommand.class), any()))
+        .thenReturn(summary);
+    ResponseBodyEmitter emitter = controller.streamCommands(request, TEST_CMD, TEST_ARGS);
+    assertEquals("Failed stream not completed with the error", rejected,
+        ReflectionTestUtils.getField(emitter, "failure"));
+    assertEquals("Admission permit not released", 0, admission.getInFlight());
+  }
+
+  @Test
+  public void testStreamCommandsStrict() {
+    when(request.getMethod()).thenReturn("PUT");
+    when(commandArguments.isStrict()).thenReturn(true);
+    controller.streamCommands(request, TEST_CMD, TEST_ARGS);
+    verify(commandArguments, never()).parse(TEST_ARGS);
+    verify(executor).execute(any(Runnable.class));
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void testStreamCommandsShed() {
+    when(request.getMethod()).thenReturn("GET");
+    ReflectionTestUtils.setField(admission, "limit", 1.0);
+    controller.getCommand(request, TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    controller.streamCommands(request, TEST_CMD, TEST_ARGS);
   }
 
 }
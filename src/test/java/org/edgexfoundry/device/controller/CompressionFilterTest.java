@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.edgexfoundry.device.controller.impl.CompressionFilter;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+@Category(RequiresNone.class)
+public class CompressionFilterTest {
+
+  private static final String PATH = "/api/v1/device/all/test_cmd";
+
+  private final CompressionFilter filter = new CompressionFilter(2048, 1, 4);
+
+  @Test
+  public void testGzip() throws Exception {
+    byte[] body = body(100000);
+    MockHttpServletResponse response = filter("gzip, deflate", PATH, body);
+    assertEquals("Response not gzipped", "gzip", response.getHeader("Content-Encoding"));
+    assertEquals("Vary not set", "Accept-Encoding", response.getHeader("Vary"));
+    assertArrayEquals("Body not restored", body,
+        read(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+  }
+
+  @Test
+  public void testReset() throws Exception {
+    byte[] body = body(5000);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH);
+    request.addHeader("Accept-Encoding", "gzip");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, (req, res) -> {
+      res.getOutputStream().write(body(100));
+      res.reset();
+      write(body).doFilter(req, res);
+    });
+    assertEquals("Response not gzipped", "gzip", response.getHeader("Content-Encoding"));
+    assertEquals("Vary not restored after reset", "Accept-Encoding", response.getHeader("Vary"));
+    assertArrayEquals("Body not restored", body,
+        read(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+  }
+
+  @Test
+  public void testDeflate() throws Exception {
+    byte[] body = body(5000);
+    MockHttpServletResponse response = filter("gzip;q=0, deflate", PATH, body);
+    assertEquals("Response not deflated", "deflate", response.getHeader("Content-Encoding"));
+    assertArrayEquals("Body not restored", body, read(
+        new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+  }
+
+  @Test
+  public void testBelowThreshold() throws Exception {
+    byte[] body = body(100);
+    MockHttpServletResponse response = filter("gzip", PATH, body);
+    assertNull("Small response compressed", response.getHeader("Content-Encoding"));
+    assertEquals("Content length not set", 100, response.getContentLength());
+    assertArrayEquals("Body changed", body, response.getContentAsByteArray());
+  }
+
+  @Test
+  public void testStreamNotFiltered() throws Exception {
+    MockHttpServletResponse response = filter("gzip", PATH + "/stream", body(5000));
+    assertNull("Stream compressed", response.getHeader("Content-Encoding"));
+  }
+
+  @Test
+  public void testAsync() throws Exception {
+    byte[] body = body(5000);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH);
+    request.addHeader("Accept-Encoding", "gzip");
+    request.setAsyncSupported(true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, (req, res) -> {
+      StandardServletAsyncWebRequest asyncRequest = new StandardServletAsyncWebRequest(
+          (HttpServletRequest) req, (HttpServletResponse) res);
+      WebAsyncUtils.getAsyncManager(req).setAsyncWebRequest(asyncRequest);
+      asyncRequest.startAsync();
+    });
+    assertFalse("Response committed before the async dispatch", response.isCommitted());
+    request.setDispatcherType(DispatcherType.ASYNC);
+    request.setAsyncStarted(false);
+    filter.doFilter(request, request.getAsyncContext().getResponse(), write(body));
+    assertEquals("Response not gzipped", "gzip", response.getHeader("Content-Encoding"));
+    assertArrayEquals("Body not restored", body,
+        read(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+  }
+
+  private MockHttpServletResponse filter(String acceptEncoding, String path, byte[] body)
+      throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    request.addHeader("Accept-Encoding", acceptEncoding);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, write(body));
+    return response;
+  }
+
+  private static FilterChain write(byte[] body) {
+    return (request, response) -> {
+      response.setContentLength(body.length);
+      response.getOutputStream().write(body);
+      response.flushBuffer();
+    };
+  }
+
+  private static byte[] body(int size) {
+    byte[] body = new byte[size];
+    byte[] pattern = "{\"device\":\"reading\"},".getBytes(StandardCharsets.US_ASCII);
+    for (int i = 0; i < size; i++) {
+      body[i] = pattern[i % pattern.length];
+    }
+    return body;
+  }
+
+  private static byte[] read(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    StreamUtils.copy(in, out);
+    return Arrays.copyOf(out.toByteArray(), out.size());
+  }
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.edgexfoundry.device.controller.callback.CallbackDispatcher;
+import org.edgexfoundry.device.controller.callback.CallbackQueue;
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandCoalescer;
+import org.edgexfoundry.device.controller.command.CommandFanOut;
+import org.edgexfoundry.device.controller.command.CommandResponseCache;
+import org.edgexfoundry.device.controller.command.CommandSubscriptions;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.discovery.DiscoveryJobs;
+import org.edgexfoundry.device.controller.impl.MetricsControllerImpl;
+import org.edgexfoundry.device.controller.metrics.MetricsRegistry;
+import org.edgexfoundry.exception.controller.NotFoundException;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+@Category(RequiresNone.class)
+public class MetricsControllerTest {
+
+  private static final String TEST_DEVICE_ID = "test_device";
+
+  @InjectMocks
+  private MetricsControllerImpl controller;
+
+  @Spy
+  private MetricsRegistry metrics;
+
+  @Mock
+  private CommandTaskExecutor executor;
+
+  @Mock
+  private CommandFanOut fanOut;
+
+  @Mock
+  private CommandCoalescer coalescer;
+
+  @Mock
+  private CommandResponseCache cache;
+
+  @Spy
+  private CommandAdmission admission;
+
+  @Spy
+  private CommandTimeouts timeouts;
+
+  @Mock
+  private CommandSubscriptions subscriptions;
+
+  @Mock
+  private DiscoveryJobs discovery;
+
+  @Mock
+  private CallbackQueue callbacks;
+
+  @Mock
+  private CallbackDispatcher dispatcher;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    when(executor.getMetrics()).thenReturn(Collections.singletonMap("activeCount", 3));
+    metrics.begin(MetricsRegistry.DEVICE, TEST_DEVICE_ID).end(2000000,
+        new NotFoundException("Device", TEST_DEVICE_ID));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testGetMetrics() {
+    Map<String, Object> report = controller.getMetrics();
+    Map<String, Object> device =
+        (Map<String, Object>) ((Map<String, Object>) report.get("device")).get(TEST_DEVICE_ID);
+    assertEquals("Device count not reported", 1L, device.get("count"));
+    assertEquals("Device errors not reported", Collections.singletonMap("NotFoundException", 1L),
+        device.get("errors"));
+    assertEquals("Executor metrics not reported", Collections.singletonMap("activeCount", 3),
+        report.get("executor"));
+  }
+
+  @Test
+  public void testGetPrometheusMetrics() {
+    String text = controller.getPrometheusMetrics();
+    assertTrue("Latency count not exported", text.contains(
+        "device_controller_latency_seconds_count{group=\"device\",name=\"test_device\"} 1\n"));
+    assertTrue("Errors not exported", text.contains("device_controller_errors_total"
+        + "{group=\"device\",name=\"test_device\",type=\"NotFoundException\"} 1\n"));
+    assertTrue("Executor gauge not exported",
+        text.contains("device_controller_executor_active_count 3\n"));
+  }
+}
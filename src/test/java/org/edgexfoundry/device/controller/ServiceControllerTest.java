@@ -19,9 +19,20 @@
 package org.edgexfoundry.device.controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.util.Collections;
+import java.util.Map;
+
+import org.edgexfoundry.device.controller.discovery.DiscoveryJob;
+import org.edgexfoundry.device.controller.discovery.DiscoveryJobs;
 import org.edgexfoundry.device.controller.impl.ServiceControllerImpl;
-import org.edgexfoundry.service.handler.ServiceHandler;
+import org.edgexfoundry.device.controller.transform.TransformPolicies;
+import org.edgexfoundry.device.controller.tuning.RuntimeTuning;
+import org.edgexfoundry.exception.controller.ClientException;
 import org.edgexfoundry.service.transform.ObjectTransform;
 import org.edgexfoundry.test.category.RequiresNone;
 import org.junit.Before;
@@ -34,6 +45,8 @@ import org.mockito.MockitoAnnotations;
 @Category(RequiresNone.class)
 public class ServiceControllerTest {
 
+  private static final String TEST_DEVICE_ID = "test_device";
+
   @InjectMocks
   private ServiceControllerImpl controller;
 
@@ -41,7 +54,13 @@ public class ServiceControllerTest {
   ObjectTransform transform;
 
   @Mock
-  ServiceHandler handler;
+  TransformPolicies transforms;
+
+  @Mock
+  DiscoveryJobs discovery;
+
+  @Mock
+  RuntimeTuning tuning;
 
   @Before
   public void setup() {
@@ -54,10 +73,39 @@ public class ServiceControllerTest {
         controller.setTransformData(true));
   }
 
+  @Test
+  public void testSetDeviceTransformData() {
+    when(transforms.isEnabled()).thenReturn(true);
+    controller.setDeviceTransformData(TEST_DEVICE_ID, "false");
+    verify(transforms).setDevicePolicy(TEST_DEVICE_ID, false);
+    controller.setDeviceTransformData(TEST_DEVICE_ID, "default");
+    verify(transforms).setDevicePolicy(TEST_DEVICE_ID, null);
+  }
+
+  @Test(expected = ClientException.class)
+  public void testSetDeviceTransformDataDisabled() {
+    controller.setDeviceTransformData(TEST_DEVICE_ID, "false");
+  }
+
+  @Test
+  public void testSetTuning() {
+    Map<String, Object> settings = Collections.singletonMap("service.command.timeout", 500);
+    when(tuning.apply(settings)).thenReturn(settings);
+    assertEquals("Settings not applied", settings, controller.setTuning(settings));
+  }
+
   @Test
   public void testDoDiscovery() {
-    assertEquals("Discovery not happening correctly", "Running discovery",
-        controller.doDiscovery());
+    DiscoveryJob job = new DiscoveryJob();
+    when(discovery.start()).thenReturn(job);
+    assertEquals("Discovery not happening correctly", job, controller.doDiscovery());
+  }
+
+  @Test
+  public void testStreamDiscovery() {
+    when(discovery.addListener(any(DiscoveryJobs.Listener.class))).thenReturn(() -> { });
+    assertNotNull("No stream returned", controller.streamDiscovery());
+    verify(discovery).addListener(any(DiscoveryJobs.Listener.class));
   }
 
 }
@@ -19,15 +19,22 @@
 package org.edgexfoundry.device.controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
 
 import org.edgexfoundry.device.controller.impl.StatusControllerImpl;
+import org.edgexfoundry.device.controller.metrics.ServiceHealth;
+import org.edgexfoundry.device.controller.metrics.ServiceStatus;
 import org.edgexfoundry.test.category.RequiresNone;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
 
 @Category(RequiresNone.class)
 public class StatusControllerTest {
@@ -35,6 +42,9 @@ public class StatusControllerTest {
   @InjectMocks
   private StatusControllerImpl controller;
 
+  @Mock
+  private ServiceHealth health;
+
   @Before
   public void setup() {
     MockitoAnnotations.initMocks(this);
@@ -45,4 +55,21 @@ public class StatusControllerTest {
     assertEquals("Ping not happening correctly", "pong", controller.ping());
   }
 
+  @Test
+  public void testStatusReady() {
+    when(health.getStatus()).thenReturn(new ServiceStatus(true,
+        Collections.<String>emptyList(), 0, 0, 0, 0, 0, System.currentTimeMillis()));
+    assertEquals("Status not happening correctly", HttpStatus.OK,
+        controller.status().getStatusCode());
+  }
+
+  @Test
+  public void testStatusNotReady() {
+    when(health.getStatus()).thenReturn(new ServiceStatus(false,
+        Collections.singletonList("Command queue 90% full"), 0.9, 1, 0, 0, 0,
+        System.currentTimeMillis()));
+    assertEquals("Status not happening correctly", HttpStatus.SERVICE_UNAVAILABLE,
+        controller.status().getStatusCode());
+  }
+
 }
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller;
+
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.edgexfoundry.device.controller.command.CommandSubscriptions;
+import org.edgexfoundry.device.controller.command.ServiceDevices;
+import org.edgexfoundry.device.controller.impl.SubscriptionControllerImpl;
+import org.edgexfoundry.domain.meta.Device;
+import org.edgexfoundry.exception.controller.ClientException;
+import org.edgexfoundry.exception.controller.NotFoundException;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+@Category(RequiresNone.class)
+public class SubscriptionControllerTest {
+
+  private static final String TEST_DEVICE_ID = "test_device";
+  private static final String TEST_CMD = "test_cmd";
+
+  @InjectMocks
+  private SubscriptionControllerImpl controller;
+
+  @Mock
+  private ServiceDevices devices;
+
+  @Mock
+  private CommandSubscriptions subscriptions;
+
+  @Mock
+  private CommandSubscriptions.Subscription subscription;
+
+  private Device device;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    device = new Device();
+    device.setId(TEST_DEVICE_ID);
+    when(devices.isConfigured()).thenReturn(true);
+  }
+
+  @Test
+  public void testSubscribe() {
+    when(devices.getDevice(TEST_DEVICE_ID)).thenReturn(device);
+    when(devices.getDeviceIds(TEST_CMD)).thenReturn(Collections.singletonList(TEST_DEVICE_ID));
+    when(subscriptions.subscribe(eq(TEST_DEVICE_ID), eq(TEST_CMD), anyLong(), anyDouble(),
+        any(CommandSubscriptions.Listener.class))).thenReturn(subscription);
+    assertNotNull("No stream returned", controller.subscribe(TEST_DEVICE_ID, TEST_CMD, 5000, 1));
+    verify(subscriptions).subscribe(eq(TEST_DEVICE_ID), eq(TEST_CMD), eq(5000L), eq(1.0),
+        any(CommandSubscriptions.Listener.class));
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testSubscribeDeviceNotFound() {
+    controller.subscribe(TEST_DEVICE_ID, TEST_CMD, 0, 0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSubscribeNotConfigured() {
+    when(devices.isConfigured()).thenReturn(false);
+    controller.subscribe(TEST_DEVICE_ID, TEST_CMD, 0, 0);
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testSubscribeCommandNotFound() {
+    when(devices.getDevice(TEST_DEVICE_ID)).thenReturn(device);
+    when(devices.getDeviceIds(TEST_CMD)).thenReturn(Collections.<String>emptyList());
+    controller.subscribe(TEST_DEVICE_ID, TEST_CMD, 0, 0);
+  }
+
+  @Test(expected = ClientException.class)
+  public void testSubscribeNegativeDeadband() {
+    controller.subscribe(TEST_DEVICE_ID, TEST_CMD, 0, -1);
+  }
+}
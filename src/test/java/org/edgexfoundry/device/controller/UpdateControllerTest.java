@@ -18,13 +18,33 @@
 
 package org.edgexfoundry.device.controller;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import javax.servlet.http.HttpServletRequest;
 
+import org.edgexfoundry.device.controller.callback.CallbackDispatcher;
+import org.edgexfoundry.device.controller.callback.CallbackQueue;
+import org.edgexfoundry.device.controller.command.CommandResponseCache;
+import org.edgexfoundry.device.controller.command.DeviceConcurrencyLimiter;
+import org.edgexfoundry.device.controller.command.ProfileDiff;
+import org.edgexfoundry.device.controller.command.ServiceDevices;
+import org.edgexfoundry.device.controller.discovery.DiscoveryJobs;
 import org.edgexfoundry.device.controller.impl.UpdateControllerImpl;
+import org.edgexfoundry.device.controller.metrics.MetricsRegistry;
+import org.edgexfoundry.device.controller.transform.TransformPolicies;
 import org.edgexfoundry.domain.meta.ActionType;
 import org.edgexfoundry.domain.meta.CallbackAlert;
+import org.edgexfoundry.domain.meta.Command;
+import org.edgexfoundry.domain.meta.DeviceObject;
+import org.edgexfoundry.domain.meta.DeviceProfile;
 import org.edgexfoundry.exception.controller.ClientException;
 import org.edgexfoundry.exception.controller.NotFoundException;
 import org.edgexfoundry.service.handler.SchedulerCallbackHandler;
@@ -36,6 +56,9 @@ import org.junit.experimental.categories.Category;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 
 @Category(RequiresNone.class)
 public class UpdateControllerTest {
@@ -51,9 +74,33 @@ public class UpdateControllerTest {
   @Mock
   private SchedulerCallbackHandler callbackHandler;
 
+  @Mock
+  private CommandResponseCache cache;
+
+  @Mock
+  private ServiceDevices devices;
+
+  @Mock
+  private CallbackQueue callbacks;
+
+  @Spy
+  private CallbackDispatcher dispatcher = new CallbackDispatcher(1);
+
   @Mock
   private HttpServletRequest request;
 
+  @Spy
+  private MetricsRegistry metrics;
+
+  @Mock
+  private TransformPolicies transforms;
+
+  @Mock
+  private DeviceConcurrencyLimiter limiter;
+
+  @Mock
+  private DiscoveryJobs discovery;
+
   private CallbackAlert alert;
 
   @Before
@@ -62,6 +109,7 @@ public class UpdateControllerTest {
     alert = new CallbackAlert();
     alert.setType(ActionType.SCHEDULE);
     alert.setId(TEST_ID);
+    when(devices.diffProfile(TEST_ID)).thenReturn(ProfileDiff.ALL);
   }
 
   @Test
@@ -91,6 +139,7 @@ public class UpdateControllerTest {
     when(request.getMethod()).thenReturn("POST");
     when(update.addDevice(TEST_ID)).thenReturn(true);
     controller.getCallback(request, alert);
+    verify(devices).invalidate();
   }
 
   @Test
@@ -99,6 +148,8 @@ public class UpdateControllerTest {
     when(request.getMethod()).thenReturn("PUT");
     when(update.updateDevice(TEST_ID)).thenReturn(true);
     controller.getCallback(request, alert);
+    verify(cache).invalidateDevice(TEST_ID);
+    verify(transforms).invalidateDevice(TEST_ID);
   }
 
   @Test
@@ -107,6 +158,10 @@ public class UpdateControllerTest {
     when(request.getMethod()).thenReturn("DELETE");
     when(update.deleteDevice(TEST_ID)).thenReturn(true);
     controller.getCallback(request, alert);
+    verify(cache).invalidateDevice(TEST_ID);
+    verify(limiter).remove(TEST_ID);
+    verify(discovery).forgetAddresses();
+    verify(transforms).invalidateDevice(TEST_ID);
   }
 
   @Test(expected = NotFoundException.class)
@@ -146,6 +201,61 @@ public class UpdateControllerTest {
     when(request.getMethod()).thenReturn("PUT");
     when(update.updateProfile(TEST_ID)).thenReturn(true);
     controller.getCallback(request, alert);
+    verify(cache).invalidateAll();
+    verify(transforms).invalidateProfile(TEST_ID);
+    verify(devices).profileUpdated(TEST_ID, ProfileDiff.ALL);
+  }
+
+  @Test
+  public void testGetCallbackForProfileUnchanged() {
+    alert.setType(ActionType.PROFILE);
+    when(request.getMethod()).thenReturn("PUT");
+    when(devices.diffProfile(TEST_ID)).thenReturn(ProfileDiff.compare(new DeviceProfile(),
+        new DeviceProfile(), Collections.singletonList("test_device")));
+    controller.getCallback(request, alert);
+    verify(update, never()).updateProfile(TEST_ID);
+    verify(cache, never()).invalidateAll();
+  }
+
+  @Test
+  public void testGetCallbackForProfileCommandChanged() {
+    alert.setType(ActionType.PROFILE);
+    when(request.getMethod()).thenReturn("PUT");
+    when(update.updateProfile(TEST_ID)).thenReturn(true);
+    Command command = new Command();
+    command.setName("test_cmd");
+    DeviceProfile updated = new DeviceProfile();
+    updated.setCommands(Collections.singletonList(command));
+    ProfileDiff diff = ProfileDiff.compare(new DeviceProfile(), updated,
+        Collections.singletonList("test_device"));
+    when(devices.diffProfile(TEST_ID)).thenReturn(diff);
+    controller.getCallback(request, alert);
+    verify(update).updateProfile(TEST_ID);
+    verify(update, never()).updateDevice(anyString());
+    verify(cache).invalidateCommand("test_device", "test_cmd");
+    verify(cache, never()).invalidateAll();
+    verify(transforms, never()).invalidateProfile(TEST_ID);
+    verify(devices).profileUpdated(TEST_ID, diff);
+  }
+
+  @Test
+  public void testGetCallbackForProfileResourceChanged() {
+    alert.setType(ActionType.PROFILE);
+    when(request.getMethod()).thenReturn("PUT");
+    when(update.updateProfile(TEST_ID)).thenReturn(true);
+    when(update.updateDevice("test_device")).thenReturn(false);
+    when(update.updateDevice("other_device")).thenReturn(true);
+    DeviceObject resource = new DeviceObject();
+    resource.setName("temperature");
+    DeviceProfile updated = new DeviceProfile();
+    updated.setDeviceResources(Collections.singletonList(resource));
+    when(devices.diffProfile(TEST_ID)).thenReturn(ProfileDiff.compare(new DeviceProfile(),
+        updated, Arrays.asList("test_device", "other_device")));
+    controller.getCallback(request, alert);
+    verify(update).updateProfile(TEST_ID);
+    verify(update).updateDevice("other_device");
+    verify(transforms).invalidateProfile(TEST_ID);
+    verify(devices, never()).profileUpdated(anyString(), any(ProfileDiff.class));
   }
 
   @Test(expected = NotFoundException.class)
@@ -238,6 +348,17 @@ public class UpdateControllerTest {
     controller.getCallback(request, alert);
   }
 
+  @Test
+  public void testGetCallbackQueued() {
+    alert.setType(ActionType.DEVICE);
+    when(request.getMethod()).thenReturn("POST");
+    when(callbacks.isEnabled()).thenReturn(true);
+    assertEquals("Callback not being queued correctly", HttpStatus.ACCEPTED,
+        controller.getCallback(request, alert).getStatusCode());
+    verify(callbacks).submit(alert, HttpMethod.POST);
+    verify(update, never()).addDevice(TEST_ID);
+  }
+
   @Test
   public void testGetCallbackForOther() {
     alert.setType(ActionType.SERVICE);
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.callback;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.edgexfoundry.domain.meta.ActionType;
+import org.edgexfoundry.domain.meta.CallbackAlert;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+@Category(RequiresNone.class)
+public class CallbackAlertConverterTest {
+
+  private CallbackAlertConverter converter = new CallbackAlertConverter();
+
+  @Test
+  public void testRead() throws IOException {
+    CallbackAlert alert = read(" {\"type\" : \"DEVICE\",\n \"id\":\"test_id\"} ");
+    assertEquals("Callback type not read correctly", ActionType.DEVICE, alert.getType());
+    assertEquals("Callback id not read correctly", "test_id", alert.getId());
+  }
+
+  @Test
+  public void testReadSkipsOtherProperties() throws IOException {
+    CallbackAlert alert = read("{\"origin\":123,\"note\":\"a \\\"quoted\\\" note\","
+        + "\"id\":\"test_id\",\"type\":null}");
+    assertEquals("Callback id not read correctly", "test_id", alert.getId());
+    assertNull("Callback type not read correctly", alert.getType());
+  }
+
+  @Test
+  public void testReadFallsBack() throws IOException {
+    CallbackAlert alert = read("{\"type\":\"PROFILE\",\"id\":\"test\\u005fid\",\"tags\":[1,2]}");
+    assertEquals("Callback type not read correctly", ActionType.PROFILE, alert.getType());
+    assertEquals("Escaped callback id not read correctly", "test_id", alert.getId());
+  }
+
+  @Test(expected = HttpMessageNotReadableException.class)
+  public void testReadUnknownType() throws IOException {
+    read("{\"type\":\"UNKNOWN\",\"id\":\"test_id\"}");
+  }
+
+  @Test
+  public void testWriteNotSupported() {
+    assertFalse("Callback converter should not write",
+        converter.canWrite(CallbackAlert.class, MediaType.APPLICATION_JSON));
+  }
+
+  private CallbackAlert read(String json) throws IOException {
+    MockHttpInputMessage message = new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8));
+    message.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    return converter.read(CallbackAlert.class, message);
+  }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.callback;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.edgexfoundry.domain.meta.ActionType;
+import org.edgexfoundry.domain.meta.CallbackAlert;
+import org.edgexfoundry.exception.controller.NotFoundException;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.springframework.http.HttpMethod;
+
+@Category(RequiresNone.class)
+public class CallbackDispatcherTest {
+
+  private CallbackDispatcher dispatcher;
+
+  private CallbackAlert alert;
+
+  @Before
+  public void setup() {
+    dispatcher = new CallbackDispatcher(2);
+    alert = new CallbackAlert();
+    alert.setType(ActionType.DEVICE);
+    alert.setId("test_id");
+  }
+
+  @After
+  public void cleanup() {
+    dispatcher.shutdown();
+  }
+
+  @Test
+  public void testSupersededUpdatesDropped() {
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> applied = new CopyOnWriteArrayList<>();
+    CompletableFuture<Void> first = dispatcher.dispatch(alert, HttpMethod.POST, () -> {
+      await(release);
+      applied.add("POST");
+    });
+    CompletableFuture<Void> second =
+        dispatcher.dispatch(alert, HttpMethod.PUT, () -> applied.add("PUT 1"));
+    CompletableFuture<Void> third =
+        dispatcher.dispatch(alert, HttpMethod.PUT, () -> applied.add("PUT 2"));
+    CompletableFuture<Void> fourth =
+        dispatcher.dispatch(alert, HttpMethod.DELETE, () -> applied.add("DELETE"));
+    release.countDown();
+    CompletableFuture.allOf(first, second, third, fourth).join();
+    assertEquals("Callbacks not ordered correctly", "[POST, PUT 2, DELETE]", applied.toString());
+    assertEquals("Superseded updates not counted correctly", 1, dispatcher.getSupersededCount());
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testAwaitUnwrapsException() {
+    CallbackDispatcher.await(dispatcher.dispatch(alert, HttpMethod.POST, () -> {
+      throw new NotFoundException("Device", "test_id");
+    }));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
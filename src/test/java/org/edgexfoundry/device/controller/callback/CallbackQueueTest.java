@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.callback;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.edgexfoundry.domain.meta.ActionType;
+import org.edgexfoundry.domain.meta.CallbackAlert;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class CallbackQueueTest {
+
+  private CallbackQueue callbacks;
+
+  private List<String> processed;
+
+  private CountDownLatch entered;
+
+  private CountDownLatch release;
+
+  @Before
+  public void setup() {
+    callbacks = new CallbackQueue();
+    ReflectionTestUtils.setField(callbacks, "enabled", true);
+    ReflectionTestUtils.setField(callbacks, "dispatcher", new CallbackDispatcher(1));
+    processed = new CopyOnWriteArrayList<>();
+    entered = new CountDownLatch(1);
+    release = new CountDownLatch(1);
+    callbacks.start((alert, method) -> {
+      if ("gate".equals(alert.getId())) {
+        entered.countDown();
+        await(release);
+        return;
+      }
+      processed.add(method + " " + alert.getId());
+    });
+  }
+
+  @After
+  public void cleanup() {
+    callbacks.stop();
+  }
+
+  @Test
+  public void testRedundantCallbacksCollapsed() throws InterruptedException {
+    callbacks.submit(alert(ActionType.DEVICE, "gate"), HttpMethod.POST);
+    entered.await(5, TimeUnit.SECONDS);
+    callbacks.submit(alert(ActionType.DEVICE, "added"), HttpMethod.POST);
+    callbacks.submit(alert(ActionType.DEVICE, "added"), HttpMethod.PUT);
+    callbacks.submit(alert(ActionType.DEVICE, "removed"), HttpMethod.POST);
+    callbacks.submit(alert(ActionType.DEVICE, "removed"), HttpMethod.PUT);
+    callbacks.submit(alert(ActionType.DEVICE, "removed"), HttpMethod.DELETE);
+    callbacks.submit(alert(ActionType.DEVICE, "updated"), HttpMethod.PUT);
+    callbacks.submit(alert(ActionType.DEVICE, "updated"), HttpMethod.PUT);
+    callbacks.submit(alert(ActionType.DEVICE, "replaced"), HttpMethod.DELETE);
+    callbacks.submit(alert(ActionType.DEVICE, "replaced"), HttpMethod.POST);
+    release.countDown();
+    waitForBacklog();
+    assertEquals("Callbacks not collapsed correctly",
+        "[POST added, PUT updated, DELETE replaced, POST replaced]", processed.toString());
+    assertEquals("Collapsed count not recorded correctly", Long.valueOf(5),
+        callbacks.getMetrics().get("collapsedCount"));
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void testQueueFull() throws InterruptedException {
+    callbacks.stop();
+    callbacks = new CallbackQueue();
+    ReflectionTestUtils.setField(callbacks, "enabled", true);
+    ReflectionTestUtils.setField(callbacks, "capacity", 1);
+    ReflectionTestUtils.setField(callbacks, "dispatcher", new CallbackDispatcher(1));
+    callbacks.start((alert, method) -> await(release));
+    callbacks.submit(alert(ActionType.DEVICE, "first"), HttpMethod.POST);
+    while (callbacks.getBacklog() > 0) {
+      Thread.sleep(1);
+    }
+    callbacks.submit(alert(ActionType.DEVICE, "second"), HttpMethod.POST);
+    callbacks.submit(alert(ActionType.DEVICE, "third"), HttpMethod.POST);
+  }
+
+  private void waitForBacklog() throws InterruptedException {
+    long applied = 0;
+    while (applied < 5) {
+      Thread.sleep(1);
+      applied = callbacks.getMetrics().get("appliedCount");
+    }
+  }
+
+  private static CallbackAlert alert(ActionType type, String id) {
+    CallbackAlert alert = new CallbackAlert();
+    alert.setType(type);
+    alert.setId(id);
+    return alert;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
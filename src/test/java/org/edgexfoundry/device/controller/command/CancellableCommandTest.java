@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(RequiresNone.class)
+public class CancellableCommandTest {
+
+  @Test(expected = CancellationException.class)
+  public void testCancelQueued() throws Exception {
+    CancellableCommand<Map<String, String>> command =
+        new CancellableCommand<>(() -> Collections.<String, String>emptyMap());
+    assertTrue("Queued command not cancelled", command.cancel());
+    command.call();
+  }
+
+  @Test
+  public void testCancelRunning() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CancellableCommand<Map<String, String>> command = new CancellableCommand<>(() -> {
+      started.countDown();
+      Thread.sleep(60000);
+      return Collections.<String, String>emptyMap();
+    });
+    ExecutorService worker = Executors.newSingleThreadExecutor();
+    try {
+      Future<Map<String, String>> result = worker.submit(command);
+      started.await();
+      assertTrue("Running command not cancelled", command.cancel());
+      try {
+        result.get(5, TimeUnit.SECONDS);
+        fail("Cancelled command returned");
+      } catch (ExecutionException e) {
+        assertTrue("Command not interrupted", e.getCause() instanceof InterruptedException);
+      }
+      assertFalse("Finished command cancelled again", command.cancel());
+    } finally {
+      worker.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testOtherInterruptKept() throws Exception {
+    CancellableCommand<Map<String, String>> command = new CancellableCommand<>(() -> {
+      // as when the executor is shut down while the command runs
+      Thread.currentThread().interrupt();
+      return Collections.<String, String>emptyMap();
+    });
+    try {
+      command.call();
+      assertTrue("Interrupt not caused by a cancel was cleared", Thread.interrupted());
+    } finally {
+      Thread.interrupted();
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class CommandAdmissionTest {
+
+  private CommandAdmission admission;
+
+  @Before
+  public void setup() {
+    admission = new CommandAdmission();
+    ReflectionTestUtils.setField(admission, "limit", 10.0);
+  }
+
+  @Test
+  public void testReadsShedBeforeWrites() {
+    for (int i = 0; i < 8; i++) {
+      admission.acquire(true);
+    }
+    try {
+      admission.acquire(true);
+      fail("Read admitted over its share of the limit");
+    } catch (RejectedExecutionException e) {
+      assertEquals("Shed read not counted", 1L, admission.getMetrics().get("shedReads"));
+    }
+    admission.acquire(false);
+    admission.acquire(false);
+    try {
+      admission.acquire(false);
+      fail("Write admitted over the limit");
+    } catch (RejectedExecutionException e) {
+      assertEquals("Rejected command still in flight", 10, admission.getInFlight());
+    }
+  }
+
+  @Test
+  public void testLimitAdjusted() {
+    CommandAdmission.Permit first = admission.acquire(false);
+    for (int i = 0; i < 5; i++) {
+      admission.acquire(false);
+    }
+    first.release();
+    first.release();
+    assertEquals("Limit not increased when in use", 10.1, admission.getLimit(), 0.0001);
+    assertEquals("Permit released twice", 5, admission.getInFlight());
+    admission.acquire(true).release(true);
+    assertEquals("Limit not decreased on overload", 9.09, admission.getLimit(), 0.0001);
+    admission.acquire(true).release(true);
+    assertEquals("Limit decreased twice in one interval", 9.09, admission.getLimit(), 0.0001);
+  }
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.edgexfoundry.domain.meta.Command;
+import org.edgexfoundry.domain.meta.Device;
+import org.edgexfoundry.domain.meta.DeviceProfile;
+import org.edgexfoundry.domain.meta.Put;
+import org.edgexfoundry.exception.controller.ClientException;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+@Category(RequiresNone.class)
+public class CommandArgumentsTest {
+
+  private static final String TEST_DEVICE_ID = "test_device";
+  private static final String TEST_CMD = "test_cmd";
+
+  @InjectMocks
+  private CommandArguments commandArguments;
+
+  @Mock
+  private ServiceDevices devices;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    Put put = new Put();
+    put.setParameterNames(Arrays.asList("speed", "direction"));
+    Command command = new Command();
+    command.setName(TEST_CMD);
+    command.setPut(put);
+    DeviceProfile profile = new DeviceProfile();
+    profile.setCommands(Collections.singletonList(command));
+    Device device = new Device();
+    device.setId(TEST_DEVICE_ID);
+    device.setProfile(profile);
+    when(devices.getDevice(TEST_DEVICE_ID)).thenReturn(device);
+  }
+
+  @Test
+  public void testParse() {
+    String arguments = "{\"speed\":42,\"direction\":\"north\"}";
+    assertEquals("Arguments not parsed", "42", commandArguments.parse(arguments).get("speed"));
+    assertSame("Parsed arguments not cached", commandArguments.parse(arguments),
+        commandArguments.parse(arguments));
+    assertEquals("Cache misses not counted", 1, commandArguments.getMissCount());
+    assertEquals("No arguments not empty", Collections.emptyMap(), commandArguments.parse(null));
+  }
+
+  @Test
+  public void testValidate() {
+    assertEquals("Known parameters rejected", Collections.singletonMap("speed", "10"),
+        commandArguments.validate(TEST_DEVICE_ID, TEST_CMD, "{\"speed\":\"10\"}"));
+    assertEquals("Unknown device not left to the handler", Collections.singletonMap("x", "1"),
+        commandArguments.validate("other_device", TEST_CMD, "{\"x\":1}"));
+  }
+
+  @Test(expected = ClientException.class)
+  public void testValidateUnknownParameter() {
+    commandArguments.validate(TEST_DEVICE_ID, TEST_CMD, "{\"altitude\":10}");
+  }
+
+  @Test(expected = ClientException.class)
+  public void testParseMalformed() {
+    commandArguments.parse("{\"speed\":");
+  }
+
+  @Test(expected = ClientException.class)
+  public void testParseNotObject() {
+    commandArguments.parse("[1,2]");
+  }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(RequiresNone.class)
+public class CommandCoalescerTest {
+
+  private static final CommandKey TEST_KEY = new CommandKey("test_device", "test_cmd", null);
+  private static final Map<String, String> TEST_RESULT =
+      Collections.singletonMap("test_resource", "test_value");
+
+  private CommandCoalescer coalescer;
+
+  private ExecutorService callers;
+
+  @Before
+  public void setup() {
+    coalescer = new CommandCoalescer();
+    callers = Executors.newFixedThreadPool(2);
+  }
+
+  @After
+  public void cleanup() {
+    callers.shutdownNow();
+  }
+
+  @Test
+  public void testConcurrentReadsCoalesced() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    Future<Map<String, String>> first = callers.submit(() -> coalescer.execute(TEST_KEY, () -> {
+      calls.incrementAndGet();
+      started.countDown();
+      release.await();
+      return TEST_RESULT;
+    }));
+    started.await(5, TimeUnit.SECONDS);
+    Future<Map<String, String>> second = callers.submit(() -> coalescer.execute(TEST_KEY, () -> {
+      calls.incrementAndGet();
+      return null;
+    }));
+    while (coalescer.getCoalescedCount() == 0) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+    assertSame("Leader result not returned", TEST_RESULT, first.get(5, TimeUnit.SECONDS));
+    assertSame("Result not shared", TEST_RESULT, second.get(5, TimeUnit.SECONDS));
+    assertEquals("Device read more than once", 1, calls.get());
+    assertEquals("In-flight read not cleared", 0, coalescer.getInFlightCount());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFailurePropagated() throws Exception {
+    coalescer.execute(TEST_KEY, () -> {
+      throw new IllegalStateException();
+    });
+  }
+}
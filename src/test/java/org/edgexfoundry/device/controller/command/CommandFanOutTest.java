@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class CommandFanOutTest {
+
+  private static final String TEST_OK_DEVICE = "ok_device";
+  private static final String TEST_FAILED_DEVICE = "failed_device";
+  private static final String TEST_SLOW_DEVICE = "slow_device";
+  private static final String TEST_SKIPPED_DEVICE = "skipped_device";
+  private static final Map<String, String> TEST_RESULT =
+      Collections.singletonMap("test_resource", "test_value");
+
+  private CommandFanOut fanOut;
+
+  private Map<String, DeviceResult> results;
+
+  @Before
+  public void setup() {
+    fanOut = new CommandFanOut();
+    ReflectionTestUtils.setField(fanOut, "parallelism", 2);
+    ReflectionTestUtils.setField(fanOut, "deviceTimeout", 200L);
+    ReflectionTestUtils.setField(fanOut, "timeout", 5000L);
+    fanOut.initialize();
+    results = new ConcurrentHashMap<>();
+  }
+
+  @After
+  public void cleanup() {
+    fanOut.shutdown();
+  }
+
+  @Test
+  public void testExecute() throws Exception {
+    List<String> deviceIds = Arrays.asList(TEST_OK_DEVICE, TEST_FAILED_DEVICE, TEST_SLOW_DEVICE);
+    FanOutSummary summary = fanOut.execute(deviceIds, deviceId -> {
+      if (TEST_FAILED_DEVICE.equals(deviceId)) {
+        throw new IllegalStateException("test failure");
+      }
+      if (TEST_SLOW_DEVICE.equals(deviceId)) {
+        Thread.sleep(5000);
+      }
+      return TEST_RESULT;
+    }, result -> results.put(result.getDevice(), result)).get(5, TimeUnit.SECONDS);
+    assertEquals("Not every device reported", 3, results.size());
+    assertEquals("Device result not reported", TEST_RESULT,
+        results.get(TEST_OK_DEVICE).getValues());
+    assertEquals("Failure not reported", DeviceResult.Status.FAILED,
+        results.get(TEST_FAILED_DEVICE).getStatus());
+    assertEquals("Timeout not reported", DeviceResult.Status.TIMEOUT,
+        results.get(TEST_SLOW_DEVICE).getStatus());
+    assertEquals("Summary success count wrong", 1, summary.getSucceeded());
+    assertEquals("Summary failure count wrong", 1, summary.getFailed());
+    assertEquals("Summary timeouts wrong", Collections.singletonList(TEST_SLOW_DEVICE),
+        summary.getTimedOut());
+  }
+
+  @Test
+  public void testCollectWithDeadline() throws Exception {
+    ReflectionTestUtils.setField(fanOut, "parallelism", 1);
+    ReflectionTestUtils.setField(fanOut, "deviceTimeout", 5000L);
+    ReflectionTestUtils.setField(fanOut, "timeout", 300L);
+    List<String> deviceIds = Arrays.asList(TEST_OK_DEVICE, TEST_SLOW_DEVICE, TEST_SKIPPED_DEVICE);
+    FanOutResult result = fanOut.collect(deviceIds, deviceId -> {
+      if (TEST_SLOW_DEVICE.equals(deviceId)) {
+        Thread.sleep(5000);
+      }
+      return TEST_RESULT;
+    }).get(5, TimeUnit.SECONDS);
+    assertEquals("Values not merged", TEST_RESULT, result.getValues());
+    assertEquals("Devices past the deadline not reported",
+        Arrays.asList(TEST_SLOW_DEVICE, TEST_SKIPPED_DEVICE), result.getSummary().getTimedOut());
+  }
+
+  @Test
+  public void testExecuteNoDevices() throws Exception {
+    FanOutSummary summary = fanOut.execute(Collections.<String>emptyList(),
+        deviceId -> TEST_RESULT, result -> results.put(result.getDevice(), result))
+        .get(1, TimeUnit.SECONDS);
+    assertEquals("Devices reported", 0, summary.getDevices());
+    assertTrue("Results reported", results.isEmpty());
+  }
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class CommandResponseCacheTest {
+
+  private static final String TEST_DEVICE_ID = "test_device";
+  private static final String TEST_CMD = "test_cmd";
+  private static final String TEST_UNCACHED_CMD = "test_uncached_cmd";
+  private static final Map<String, String> TEST_RESULT =
+      Collections.singletonMap("test_resource", "test_value");
+
+  private CommandResponseCache cache;
+
+  private AtomicInteger reads;
+
+  private Callable<Map<String, String>> read;
+
+  @Before
+  public void setup() {
+    cache = new CommandResponseCache();
+    ReflectionTestUtils.setField(cache, "enabled", true);
+    ReflectionTestUtils.setField(cache, "defaultTtl", 60000L);
+    ReflectionTestUtils.setField(cache, "maxEntries", 2);
+    ReflectionTestUtils.setField(cache, "environment",
+        new MockEnvironment().withProperty("service.command.cache.ttl." + TEST_UNCACHED_CMD, "0"));
+    reads = new AtomicInteger();
+    read = () -> {
+      reads.incrementAndGet();
+      return TEST_RESULT;
+    };
+  }
+
+  @Test
+  public void testReadThrough() throws Exception {
+    CommandKey key = new CommandKey(TEST_DEVICE_ID, TEST_CMD, null);
+    assertEquals("Read not returned", TEST_RESULT, cache.get(key, read));
+    assertEquals("Cached read not returned", TEST_RESULT, cache.get(key, read));
+    assertEquals("Cached read went to device", 1, reads.get());
+    assertEquals("Cache hit not counted", 1, cache.getHitCount());
+  }
+
+  @Test
+  public void testCommandTtlOverride() throws Exception {
+    CommandKey key = new CommandKey(TEST_DEVICE_ID, TEST_UNCACHED_CMD, null);
+    cache.get(key, read);
+    cache.get(key, read);
+    assertEquals("Uncached command served from cache", 2, reads.get());
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    cache.get(new CommandKey("device1", TEST_CMD, null), read);
+    cache.get(new CommandKey("device2", TEST_CMD, null), read);
+    cache.get(new CommandKey("device3", TEST_CMD, null), read);
+    assertEquals("Cache not bounded", 2, cache.size());
+  }
+
+  @Test
+  public void testInvalidateDevice() throws Exception {
+    CommandKey key = new CommandKey(TEST_DEVICE_ID, TEST_CMD, null);
+    cache.get(key, read);
+    cache.get(new CommandKey("other_device", TEST_CMD, null), read);
+    cache.invalidateDevice(TEST_DEVICE_ID);
+    assertEquals("Other devices invalidated", 1, cache.size());
+    cache.get(key, read);
+    assertEquals("Invalidated read served from cache", 3, reads.get());
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    ReflectionTestUtils.setField(cache, "enabled", false);
+    CommandKey key = new CommandKey(TEST_DEVICE_ID, TEST_CMD, null);
+    cache.get(key, read);
+    cache.get(key, read);
+    assertEquals("Disabled cache served read", 2, reads.get());
+  }
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class CommandSubscriptionsTest {
+
+  private static final String TEST_DEVICE_ID = "test_device";
+  private static final String TEST_CMD = "test_cmd";
+
+  @InjectMocks
+  private CommandSubscriptions subscriptions;
+
+  @Mock
+  private DeviceCommandRunner runner;
+
+  @Spy
+  private CommandTaskExecutor executor = new CommandTaskExecutor(1, 1, 16);
+
+  @Before
+  public void setup() throws Exception {
+    MockitoAnnotations.initMocks(this);
+    executor.initialize();
+    ReflectionTestUtils.setField(subscriptions, "minInterval", 10L);
+    when(runner.read(TEST_DEVICE_ID, TEST_CMD, null)).thenReturn(reading("1.0"))
+        .thenReturn(reading("1.05")).thenReturn(reading("2.0"));
+  }
+
+  @After
+  public void cleanup() {
+    subscriptions.shutdown();
+    executor.shutdown();
+  }
+
+  @Test
+  public void testChangesPushed() throws Exception {
+    BlockingQueue<Map<String, String>> exact = new LinkedBlockingQueue<>();
+    BlockingQueue<Map<String, String>> banded = new LinkedBlockingQueue<>();
+    CommandSubscriptions.Subscription first =
+        subscriptions.subscribe(TEST_DEVICE_ID, TEST_CMD, 0, 0, exact::add);
+    CommandSubscriptions.Subscription second =
+        subscriptions.subscribe(TEST_DEVICE_ID, TEST_CMD, 0, 0.5, banded::add);
+    assertEquals("Poller not shared", 1, subscriptions.getMetrics().get("pollers"));
+    assertEquals("First reading not pushed", reading("1.0"), exact.poll(5, TimeUnit.SECONDS));
+    assertEquals("Change not pushed", reading("1.05"), exact.poll(5, TimeUnit.SECONDS));
+    assertEquals("Change not pushed", reading("2.0"), exact.poll(5, TimeUnit.SECONDS));
+    assertEquals("First reading not pushed", reading("1.0"), banded.poll(5, TimeUnit.SECONDS));
+    assertEquals("Change not pushed", reading("2.0"), banded.poll(5, TimeUnit.SECONDS));
+    assertNull("Unchanged reading pushed", exact.poll(100, TimeUnit.MILLISECONDS));
+    assertNull("Change within deadband pushed", banded.poll(0, TimeUnit.MILLISECONDS));
+    first.cancel();
+    second.cancel();
+    assertEquals("Poller not stopped", 0, subscriptions.getMetrics().get("pollers"));
+    assertEquals("Subscribers not removed", 0, subscriptions.getMetrics().get("subscribers"));
+  }
+
+  @Test
+  public void testFailedSubscriberRemoved() throws Exception {
+    subscriptions.subscribe(TEST_DEVICE_ID, TEST_CMD, 0, 0, values -> {
+      throw new IllegalStateException("gone");
+    });
+    for (int i = 0; i < 500 && subscriptions.getMetrics().get("pollers").intValue() > 0; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals("Failed subscriber not removed", 0, subscriptions.getMetrics().get("pollers"));
+  }
+
+  private static Map<String, String> reading(String value) {
+    return Collections.singletonMap("value", value);
+  }
+}
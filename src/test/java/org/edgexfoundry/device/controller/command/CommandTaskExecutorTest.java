@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(RequiresNone.class)
+public class CommandTaskExecutorTest {
+
+  private CommandTaskExecutor executor;
+
+  private CountDownLatch release;
+
+  @Before
+  public void setup() {
+    executor = new CommandTaskExecutor(1, 1, 1);
+    executor.initialize();
+    release = new CountDownLatch(1);
+  }
+
+  @After
+  public void cleanup() {
+    release.countDown();
+    executor.shutdown();
+  }
+
+  @Test
+  public void testRejectWhenSaturated() {
+    executor.submit(this::block);
+    executor.submit(this::block);
+    try {
+      executor.submit(this::block);
+    } catch (RejectedExecutionException e) {
+      assertEquals("Rejection not counted", 1, executor.getRejectedCount());
+      assertEquals("Queue not reported", 1, executor.getMetrics().get("queueSize"));
+      return;
+    }
+    throw new AssertionError("Saturated executor accepted a command");
+  }
+
+  @Test
+  public void testVirtualMode() throws Exception {
+    CommandTaskExecutor virtual = new CommandTaskExecutor(1, 1, 1, "virtual", 4);
+    virtual.initialize();
+    try {
+      boolean supported = VirtualThreads.factory("test-") != null;
+      assertEquals("Virtual mode not applied", supported, virtual.isVirtual());
+      assertEquals("Command not run", "done", virtual.submit(() -> "done").get());
+      assertEquals("Mode not reported", supported ? 1 : 0, virtual.getMetrics().get("virtual"));
+    } finally {
+      virtual.shutdown();
+    }
+  }
+
+  private void block() {
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.edgexfoundry.device.controller.metrics.MetricsRegistry;
+import org.edgexfoundry.device.controller.transform.TransformPolicies;
+import org.edgexfoundry.exception.controller.ClientException;
+import org.edgexfoundry.service.handler.CommandHandler;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class DeviceCommandRunnerTest {
+
+  private static final String TEST_DEVICE_ID = "test_device";
+  private static final String TEST_CMD = "test_cmd";
+  private static final String TEST_ARGS = "test_arg";
+  private static final Map<String, String> TEST_RESULT =
+      Collections.singletonMap("test_resource", "test_value");
+
+  @InjectMocks
+  private DeviceCommandRunner runner;
+
+  @Mock
+  private CommandHandler command;
+
+  @Spy
+  private CommandCoalescer coalescer;
+
+  @Spy
+  private DeviceConcurrencyLimiter limiter;
+
+  @Spy
+  private CommandResponseCache cache;
+
+  @Spy
+  private MetricsRegistry metrics;
+
+  @Mock
+  private AsyncCommandHandler asyncCommand;
+
+  @Mock
+  private ParsedCommandHandler parsedCommand;
+
+  @Spy
+  private CommandArguments commandArguments;
+
+  @Spy
+  private TransformPolicies transforms;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    when(command.getResponse(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS)).thenReturn(TEST_RESULT);
+    ReflectionTestUtils.setField(runner, "parsedCommand", null);
+  }
+
+  @Test
+  public void testRead() throws Exception {
+    ReflectionTestUtils.setField(cache, "enabled", true);
+    ReflectionTestUtils.setField(cache, "defaultTtl", 60000L);
+    ReflectionTestUtils.setField(cache, "maxEntries", 16);
+    assertEquals("Read not returned", TEST_RESULT,
+        runner.run(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, true));
+    assertEquals("Cached read not returned", TEST_RESULT,
+        runner.run(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, true));
+    verify(command, times(1)).getResponse(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+  }
+
+  @Test
+  public void testExecute() throws Exception {
+    ReflectionTestUtils.setField(cache, "enabled", true);
+    ReflectionTestUtils.setField(cache, "defaultTtl", 60000L);
+    runner.run(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, false);
+    assertEquals("Actuation not returned", TEST_RESULT,
+        runner.run(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, false));
+    verify(command, times(2)).getResponse(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    assertEquals("Device latency not recorded", 2, metrics.getSeries().get(MetricsRegistry.DEVICE)
+        .get(TEST_DEVICE_ID).getLatency().getCount());
+  }
+
+  @Test
+  public void testExecuteParsed() throws Exception {
+    ReflectionTestUtils.setField(runner, "parsedCommand", parsedCommand);
+    when(parsedCommand.getResponse(TEST_DEVICE_ID, TEST_CMD,
+        Collections.singletonMap("test_param", "1"))).thenReturn(TEST_RESULT);
+    assertEquals("Parsed arguments not passed to the handler", TEST_RESULT,
+        runner.execute(TEST_DEVICE_ID, TEST_CMD, "{\"test_param\":1}"));
+    verify(command, times(0)).getResponse(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+  }
+
+  @Test
+  public void testExecuteStrict() throws Exception {
+    ReflectionTestUtils.setField(commandArguments, "strict", true);
+    doThrow(new ClientException("Command arguments must be a JSON object"))
+        .when(commandArguments).validate(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    try {
+      runner.run(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, false);
+      fail("Invalid arguments not rejected");
+    } catch (ClientException e) {
+      verify(command, never()).getResponse(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    }
+    assertEquals("Reads validated", TEST_RESULT,
+        runner.run(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, true));
+  }
+
+  @Test
+  public void testSubmitBlocking() throws Exception {
+    ReflectionTestUtils.setField(runner, "asyncCommand", null);
+    assertEquals("Blocking command not run on the executor", TEST_RESULT,
+        runner.submit(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, false, Runnable::run).get());
+  }
+
+  @Test
+  public void testSubmitAsync() throws Exception {
+    CompletableFuture<Map<String, String>> response = new CompletableFuture<>();
+    when(asyncCommand.getResponse(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS)).thenReturn(response);
+    CompletableFuture<Map<String, String>> result =
+        runner.submit(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, true, Runnable::run);
+    assertEquals("Command in flight not recorded", 1, metrics.getSeries()
+        .get(MetricsRegistry.DEVICE).get(TEST_DEVICE_ID).getInFlight());
+    response.complete(TEST_RESULT);
+    assertEquals("Async response not returned", TEST_RESULT, result.get());
+    verify(command, times(0)).getResponse(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+  }
+
+  @Test
+  public void testSubmitAsyncStrict() throws Exception {
+    ReflectionTestUtils.setField(commandArguments, "strict", true);
+    doThrow(new ClientException("Command arguments must be a JSON object"))
+        .when(commandArguments).validate(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    List<Runnable> tasks = new ArrayList<>();
+    CompletableFuture<Map<String, String>> result =
+        runner.submit(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS, false, tasks::add);
+    verify(commandArguments, never()).validate(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    tasks.forEach(Runnable::run);
+    try {
+      result.get();
+      fail("Invalid arguments not rejected");
+    } catch (ExecutionException e) {
+      assertTrue("Validation error not returned", e.getCause() instanceof ClientException);
+      verify(asyncCommand, never()).getResponse(TEST_DEVICE_ID, TEST_CMD, TEST_ARGS);
+    }
+  }
+}
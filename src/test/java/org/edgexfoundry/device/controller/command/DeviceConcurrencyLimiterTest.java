@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class DeviceConcurrencyLimiterTest {
+
+  private static final String TEST_DEVICE_ID = "test_device";
+  private static final Map<String, String> TEST_RESULT =
+      Collections.singletonMap("test_resource", "test_value");
+
+  private DeviceConcurrencyLimiter limiter;
+
+  private ExecutorService callers;
+
+  @Before
+  public void setup() {
+    limiter = new DeviceConcurrencyLimiter();
+    ReflectionTestUtils.setField(limiter, "limit", 1);
+    ReflectionTestUtils.setField(limiter, "maxWait", 10L);
+    callers = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void cleanup() {
+    callers.shutdownNow();
+  }
+
+  @Test
+  public void testExecute() throws Exception {
+    assertEquals("Command response not returned", TEST_RESULT,
+        limiter.execute(TEST_DEVICE_ID, () -> TEST_RESULT));
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void testRejectOverLimit() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    callers.submit(() -> limiter.execute(TEST_DEVICE_ID, () -> {
+      started.countDown();
+      release.await();
+      return TEST_RESULT;
+    }));
+    started.await(5, TimeUnit.SECONDS);
+    try {
+      limiter.execute(TEST_DEVICE_ID, () -> TEST_RESULT);
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void testShrinkLimit() throws Exception {
+    limiter.setLimit(2);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    callers.submit(() -> limiter.execute(TEST_DEVICE_ID, () -> {
+      started.countDown();
+      release.await();
+      return TEST_RESULT;
+    }));
+    started.await(5, TimeUnit.SECONDS);
+    limiter.setLimit(1);
+    try {
+      limiter.execute(TEST_DEVICE_ID, () -> TEST_RESULT);
+      fail("Command running before the limit changed not counted");
+    } catch (RejectedExecutionException e) {
+      // expected
+    } finally {
+      release.countDown();
+    }
+    callers.shutdown();
+    callers.awaitTermination(5, TimeUnit.SECONDS);
+    assertEquals("Permit not returned", TEST_RESULT,
+        limiter.execute(TEST_DEVICE_ID, () -> TEST_RESULT));
+  }
+
+  @Test
+  public void testRemove() throws Exception {
+    limiter.execute(TEST_DEVICE_ID, () -> TEST_RESULT);
+    limiter.remove(TEST_DEVICE_ID);
+    assertEquals("Deleted device not evicted", 0, limiter.getDevices());
+  }
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.edgexfoundry.domain.meta.Command;
+import org.edgexfoundry.domain.meta.DeviceObject;
+import org.edgexfoundry.domain.meta.DeviceProfile;
+import org.edgexfoundry.domain.meta.ProfileProperty;
+import org.edgexfoundry.domain.meta.ProfileResource;
+import org.edgexfoundry.domain.meta.PropertyValue;
+import org.edgexfoundry.domain.meta.ResourceOperation;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(RequiresNone.class)
+public class ProfileDiffTest {
+
+  @Test
+  public void testUnchanged() {
+    ProfileDiff diff = ProfileDiff.compare(profile("0.1", "temperature", "humidity"),
+        profile("0.1", "temperature", "humidity"), Collections.singletonList("test_device"));
+    assertTrue("Identical profiles differ: " + diff, diff.isEmpty());
+  }
+
+  @Test
+  public void testResourceChanged() {
+    ProfileDiff diff = ProfileDiff.compare(profile("0.1", "temperature", "humidity"),
+        profile("0.01", "temperature", "humidity", "pressure"),
+        Collections.singletonList("test_device"));
+    assertEquals("Changed resources not found",
+        new HashSet<>(Arrays.asList("temperature", "pressure")), diff.getResources());
+    assertEquals("Affected commands not found",
+        new HashSet<>(Arrays.asList("temperature", "pressure")), diff.getCommands());
+    assertEquals("Devices not kept", Collections.singletonList("test_device"),
+        diff.getDeviceIds());
+  }
+
+  @Test
+  public void testUnknown() {
+    assertTrue("Missing profile not treated as a full change",
+        ProfileDiff.compare(null, new DeviceProfile(), Collections.<String>emptyList()).isAll());
+  }
+
+  // a profile with a command per name, reading the device resource of the same name, with the
+  // scale of the first device resource set
+  private static DeviceProfile profile(String scale, String... names) {
+    DeviceProfile profile = new DeviceProfile();
+    profile.setCommands(new ArrayList<>());
+    profile.setDeviceResources(new ArrayList<>());
+    profile.setResources(new ArrayList<>());
+    for (String name : names) {
+      Command command = new Command();
+      command.setName(name);
+      profile.getCommands().add(command);
+      PropertyValue value = new PropertyValue();
+      value.setScale(profile.getDeviceResources().isEmpty() ? scale : "1.0");
+      ProfileProperty properties = new ProfileProperty();
+      properties.setValue(value);
+      DeviceObject deviceResource = new DeviceObject();
+      deviceResource.setName(name);
+      deviceResource.setProperties(properties);
+      profile.getDeviceResources().add(deviceResource);
+      ResourceOperation operation = new ResourceOperation();
+      operation.setObject(name);
+      ProfileResource resource = new ProfileResource();
+      resource.setName(name);
+      resource.setGet(Collections.singletonList(operation));
+      profile.getResources().add(resource);
+    }
+    return profile;
+  }
+}
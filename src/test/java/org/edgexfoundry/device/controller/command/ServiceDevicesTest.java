@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Jim White, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.edgexfoundry.controller.DeviceClient;
+import org.edgexfoundry.controller.DeviceProfileClient;
+import org.edgexfoundry.domain.meta.Command;
+import org.edgexfoundry.domain.meta.Device;
+import org.edgexfoundry.domain.meta.DeviceProfile;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class ServiceDevicesTest {
+
+  private static final String TEST_SERVICE = "test_service";
+  private static final String TEST_PROFILE_ID = "test_profile";
+
+  @InjectMocks
+  private ServiceDevices devices;
+
+  @Mock
+  private DeviceClient deviceClient;
+
+  @Mock
+  private DeviceProfileClient profileClient;
+
+  private DeviceProfile updated;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(devices, "serviceName", TEST_SERVICE);
+    ReflectionTestUtils.setField(devices, "refresh", 30000L);
+    updated = profile("test_cmd");
+    when(deviceClient.devicesForServiceByName(TEST_SERVICE))
+        .thenReturn(Collections.singletonList(device(profile())))
+        .thenReturn(Collections.singletonList(device(updated)));
+    when(profileClient.deviceProfile(TEST_PROFILE_ID)).thenReturn(updated);
+  }
+
+  @Test
+  public void testDiffAfterRefresh() {
+    devices.getDevices();
+    // the refresh already holds the updated profile when the callback arrives
+    devices.invalidate();
+    ProfileDiff diff = devices.diffProfile(TEST_PROFILE_ID);
+    assertEquals("Refreshed profile hid the change", Collections.singleton("test_cmd"),
+        diff.getCommands());
+    assertEquals("Devices not found", Collections.singletonList("test_device"),
+        diff.getDeviceIds());
+    devices.profileUpdated(TEST_PROFILE_ID, diff);
+    assertTrue("Applied update not kept", devices.diffProfile(TEST_PROFILE_ID).isEmpty());
+  }
+
+  @Test
+  public void testDiffFirstLoadDuringCallback() {
+    when(deviceClient.devicesForServiceByName(TEST_SERVICE))
+        .thenReturn(Collections.singletonList(device(updated)));
+    // devices are first loaded by the callback, after metadata already holds the update
+    ProfileDiff diff = devices.diffProfile(TEST_PROFILE_ID);
+    assertTrue("Profile captured while diffing hid the change", diff.isAll());
+    assertSame("Updated profile not kept", updated, diff.getProfile());
+    devices.profileUpdated(TEST_PROFILE_ID, diff);
+    assertTrue("Applied update not kept", devices.diffProfile(TEST_PROFILE_ID).isEmpty());
+  }
+
+  @Test
+  public void testDiffUnknownProfile() {
+    devices.initialize();
+    when(profileClient.deviceProfile("other_profile")).thenReturn(profile());
+    assertTrue("Unseen profile not treated as a full change",
+        devices.diffProfile("other_profile").isAll());
+    devices.profileUpdated(TEST_PROFILE_ID, ProfileDiff.ALL);
+    devices.invalidate();
+    assertTrue("Version captured again by a later load",
+        devices.diffProfile(TEST_PROFILE_ID).isAll());
+  }
+
+  private static DeviceProfile profile(String... commands) {
+    DeviceProfile profile = new DeviceProfile();
+    profile.setId(TEST_PROFILE_ID);
+    profile.setCommands(new ArrayList<>());
+    for (String name : commands) {
+      Command command = new Command();
+      command.setName(name);
+      profile.getCommands().add(command);
+    }
+    return profile;
+  }
+
+  private static Device device(DeviceProfile profile) {
+    Device device = new Device();
+    device.setId("test_device");
+    device.setProfile(profile);
+    return device;
+  }
+}
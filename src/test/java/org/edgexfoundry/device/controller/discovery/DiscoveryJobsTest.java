@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.edgexfoundry.exception.controller.NotFoundException;
+import org.edgexfoundry.service.handler.ServiceHandler;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class DiscoveryJobsTest {
+
+  @InjectMocks
+  private DiscoveryJobs jobs;
+
+  @Mock
+  private ServiceHandler handler;
+
+  @Mock
+  private IncrementalScanner incrementalScanner;
+
+  private final CountDownLatch scanning = new CountDownLatch(1);
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    doAnswer(invocation -> {
+      scanning.countDown();
+      release.await();
+      return null;
+    }).when(handler).scan();
+    ReflectionTestUtils.setField(jobs, "incrementalScanner", null);
+  }
+
+  @After
+  public void cleanup() {
+    jobs.shutdown();
+  }
+
+  @Test
+  public void testSingleFlight() throws Exception {
+    DiscoveryJob job = jobs.start();
+    assertTrue("Scan not started", scanning.await(5, TimeUnit.SECONDS));
+    assertSame("Concurrent request not joined", job, jobs.start());
+    assertEquals("Joined request not counted", 2, job.getRequests());
+    release.countDown();
+    await(job);
+    assertEquals("Scan not completed", DiscoveryJob.Status.COMPLETED, job.getStatus());
+    assertSame("Request within cool-down started a scan", job, jobs.start());
+    ReflectionTestUtils.setField(jobs, "coolDown", 0L);
+    DiscoveryJob next = jobs.start();
+    assertNotSame("Request after cool-down not scanned", job, next);
+    await(next);
+    verify(handler, times(2)).scan();
+  }
+
+  @Test
+  public void testCancel() throws Exception {
+    DiscoveryJob job = jobs.start();
+    assertTrue("Scan not started", scanning.await(5, TimeUnit.SECONDS));
+    assertSame("Job not found", job, jobs.getJob(job.getId()));
+    jobs.cancel(job.getId());
+    assertEquals("Scan not cancelled", DiscoveryJob.Status.CANCELLED, job.getStatus());
+    assertNotSame("Cancelled scan joined", job, jobs.start());
+  }
+
+  @Test
+  public void testFailure() throws Exception {
+    doThrow(new IllegalStateException("bus fault")).when(handler).scan();
+    DiscoveryJob job = jobs.start();
+    await(job);
+    assertEquals("Scan failure not reported", DiscoveryJob.Status.FAILED, job.getStatus());
+    assertEquals("Scan error not reported", "bus fault", job.getError());
+  }
+
+  @Test
+  public void testIncremental() throws Exception {
+    ReflectionTestUtils.setField(jobs, "incrementalScanner", incrementalScanner);
+    ReflectionTestUtils.setField(jobs, "coolDown", 0L);
+    ReflectionTestUtils.setField(jobs, "rate", 100.0);
+    when(incrementalScanner.getBuses()).thenReturn(Arrays.asList("bus0", "bus1"));
+    when(incrementalScanner.getAddresses("bus0")).thenReturn(Arrays.asList("1", "2", "3", "4"));
+    when(incrementalScanner.getAddresses("bus1")).thenReturn(Collections.singletonList("1"));
+    when(incrementalScanner.probe(anyString(), anyString())).thenReturn(null);
+    when(incrementalScanner.probe("bus0", "2"))
+        .thenReturn(Collections.singletonMap("model", "meter"));
+    List<DiscoveredDevice> found = Collections.synchronizedList(new ArrayList<>());
+    jobs.addListener(found::add);
+    long start = System.nanoTime();
+    DiscoveryJob job = jobs.start();
+    await(job);
+    assertTrue("Probes not paced", System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(25));
+    assertEquals("Scan not completed", DiscoveryJob.Status.COMPLETED, job.getStatus());
+    assertEquals("Addresses not probed", 5, job.getProbed());
+    assertEquals("Device not found", 1, job.getFound());
+    assertEquals("Device not streamed", "2", found.get(0).getAddress());
+    DiscoveryJob rescan = jobs.start();
+    await(rescan);
+    assertEquals("Known address probed again", 1, rescan.getSkipped());
+    assertEquals("Unknown addresses not probed", 4, rescan.getProbed());
+    assertEquals("Known device streamed again", 1, found.size());
+    jobs.forgetAddresses();
+    DiscoveryJob afterDelete = jobs.start();
+    await(afterDelete);
+    assertEquals("Forgotten address not probed again", 5, afterDelete.getProbed());
+    verify(handler, times(0)).scan();
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testGetJobNotFound() {
+    jobs.getJob("unknown");
+  }
+
+  private static void await(DiscoveryJob job) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!job.isDone() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(RequiresNone.class)
+public class LatencyHistogramTest {
+
+  @Test
+  public void testBucketBounds() {
+    for (long value : new long[] {0, 15, 16, 17, 1000, 123456789, 1L << 36}) {
+      long highest = LatencyHistogram.highestValue(LatencyHistogram.index(value));
+      assertTrue("Value not within its bucket", highest >= value);
+      assertTrue("Bucket not precise enough", highest - value <= value / 16);
+    }
+  }
+
+  @Test
+  public void testQuantiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000);
+    }
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals("Count not recorded correctly", 1000, snapshot.getCount());
+    assertEquals("Max not recorded correctly", 1000000, snapshot.getMax());
+    assertEquals("Mean not recorded correctly", 500500, snapshot.getMean());
+    assertWithin(500000, snapshot.getValueAtQuantile(0.5));
+    assertWithin(990000, snapshot.getValueAtQuantile(0.99));
+    assertEquals("p999 not capped at max", 1000000, snapshot.getValueAtQuantile(0.999));
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    assertTrue("Quantile " + actual + " not within 1/16 of " + expected,
+        actual >= expected && actual - expected <= expected / 16);
+  }
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.edgexfoundry.exception.controller.NotFoundException;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Category(RequiresNone.class)
+public class MetricsInterceptorTest {
+
+  private static final String ENDPOINT = "GET /api/v1/device/{deviceId}/{cmd}";
+
+  @InjectMocks
+  private MetricsInterceptor interceptor;
+
+  @Spy
+  private MetricsRegistry metrics;
+
+  private MockHttpServletRequest request;
+
+  private MockHttpServletResponse response;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    request = new MockHttpServletRequest("GET", "/api/v1/device/test_device/test_cmd");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+        "/api/v1/device/{deviceId}/{cmd}");
+    response = new MockHttpServletResponse();
+  }
+
+  @Test
+  public void testAsyncRequestTimedOnce() {
+    interceptor.preHandle(request, response, null);
+    assertEquals("In-flight request not counted", 1, series().getInFlight());
+    interceptor.preHandle(request, response, null);
+    interceptor.afterCompletion(request, response, null, null);
+    assertEquals("In-flight request not released", 0, series().getInFlight());
+    assertEquals("Request not timed once", 1, series().getLatency().getCount());
+  }
+
+  @Test
+  public void testResolvedErrorCounted() {
+    interceptor.preHandle(request, response, null);
+    interceptor.resolveException(request, response, null,
+        new NotFoundException("Device", "test_device"));
+    interceptor.afterCompletion(request, response, null, null);
+    assertEquals("Error not counted by type", Long.valueOf(1),
+        series().getErrors().get("NotFoundException"));
+  }
+
+  private Series series() {
+    return metrics.getSeries().get(MetricsRegistry.ENDPOINT).get(ENDPOINT);
+  }
+}
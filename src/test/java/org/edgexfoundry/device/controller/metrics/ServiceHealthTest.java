@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import org.edgexfoundry.device.controller.callback.CallbackQueue;
+import org.edgexfoundry.device.controller.command.CommandAdmission;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.exception.controller.NotFoundException;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class ServiceHealthTest {
+
+  @InjectMocks
+  private ServiceHealth health;
+
+  @Mock
+  private CommandTaskExecutor executor;
+
+  @Mock
+  private CallbackQueue callbacks;
+
+  @Spy
+  private MetricsRegistry metrics;
+
+  @Spy
+  private CommandAdmission admission;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(health, "cacheMillis", 0L);
+    ReflectionTestUtils.setField(health, "minCommands", 10L);
+    when(executor.getQueueCapacity()).thenReturn(100);
+    when(executor.getMaxPoolSize()).thenReturn(10);
+  }
+
+  @Test
+  public void testReady() {
+    when(executor.getQueueSize()).thenReturn(10);
+    when(executor.getActiveCount()).thenReturn(10);
+    ServiceStatus status = health.getStatus();
+    assertTrue("Service not ready", status.isReady());
+    assertEquals("Executor utilization not reported", 1.0, status.getExecutorUtilization(), 0);
+  }
+
+  @Test
+  public void testQueueFull() {
+    when(executor.getQueueSize()).thenReturn(90);
+    ServiceStatus status = health.getStatus();
+    assertFalse("Full queue not reported", status.isReady());
+    assertEquals("Reason not reported", "Command queue 90% full", status.getReasons().get(0));
+  }
+
+  @Test
+  public void testAdmissionSaturated() {
+    for (int i = 0; i < 56; i++) {
+      admission.acquire(false);
+    }
+    ServiceStatus status = health.getStatus();
+    assertFalse("Admission saturation not reported", status.isReady());
+    assertEquals("Reason not reported", "Command admission 88% used", status.getReasons().get(0));
+  }
+
+  @Test
+  public void testErrorRate() {
+    health.getStatus();
+    for (int i = 0; i < 20; i++) {
+      metrics.begin(MetricsRegistry.COMMAND, "test_cmd").end(1000,
+          i % 4 == 0 ? null : new NotFoundException("Device", "test_device"));
+    }
+    ServiceStatus status = health.getStatus();
+    assertFalse("Error rate not reported", status.isReady());
+    assertEquals("Error rate not calculated correctly", 0.75, status.getErrorRate(), 0.001);
+  }
+
+  @Test
+  public void testStatusCached() {
+    ReflectionTestUtils.setField(health, "cacheMillis", 60000L);
+    assertSame("Status not cached", health.getStatus(), health.getStatus());
+  }
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+package org.edgexfoundry.device.controller.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.edgexfoundry.domain.meta.PropertyValue;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+// expected values follow the order ObjectTransform applies: mask, shift, base, scale, offset
+@Category(RequiresNone.class)
+public class TransformPipelineTest {
+
+  @Test
+  public void testMaskThenShift() {
+    PropertyValue value = value("Integer");
+    value.setMask("0x0F");
+    value.setShift("-1");
+    value.setScale("10");
+    assertEquals("Mask, shift and scale not applied", "70",
+        TransformPipeline.compile(value).apply("255"));
+    value.setShift("2");
+    assertEquals("Positive shift not a left shift", "600",
+        TransformPipeline.compile(value).apply("255"));
+  }
+
+  @Test
+  public void testBaseScaleOffset() {
+    PropertyValue value = value("Float");
+    value.setBase("2");
+    value.setScale("0.5");
+    value.setOffset("-1");
+    assertEquals("Base, scale and offset not applied in order", "3.0",
+        TransformPipeline.compile(value).apply("3"));
+    value.setType("Integer");
+    value.setBase("");
+    value.setScale("0.25");
+    value.setOffset("0");
+    assertEquals("Integer result not rounded", "2", TransformPipeline.compile(value).apply("9"));
+  }
+
+  @Test
+  public void testUnsignedMask() {
+    PropertyValue value = value("Uint64");
+    value.setMask("18446744073709551360");
+    value.setShift("-8");
+    assertEquals("Decimal mask above the signed range dropped", "72057594037927935",
+        TransformPipeline.compile(value).apply("18446744073709551615"));
+    value.setMask("0xFF00000000000000");
+    value.setShift("-56");
+    assertEquals("Hexadecimal mask with the high bit dropped", "255",
+        TransformPipeline.compile(value).apply("18446744073709551615"));
+  }
+
+  @Test
+  public void testPassThrough() {
+    PropertyValue value = value("Integer");
+    value.setScale("10");
+    assertEquals("Non-numeric reading changed", "n/a",
+        TransformPipeline.compile(value).apply("n/a"));
+    assertSame("Defaults not an identity", TransformPipeline.IDENTITY,
+        TransformPipeline.compile(new PropertyValue()));
+    assertTrue("Missing value not an identity", TransformPipeline.compile(null).isIdentity());
+  }
+
+  private static PropertyValue value(String type) {
+    PropertyValue value = new PropertyValue();
+    value.setType(type);
+    return value;
+  }
+}
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.edgexfoundry.device.controller.command.CommandResponseCache;
+import org.edgexfoundry.device.controller.command.ServiceDevices;
+import org.edgexfoundry.domain.meta.Device;
+import org.edgexfoundry.domain.meta.DeviceObject;
+import org.edgexfoundry.domain.meta.DeviceProfile;
+import org.edgexfoundry.domain.meta.ProfileProperty;
+import org.edgexfoundry.domain.meta.PropertyValue;
+import org.edgexfoundry.service.transform.ObjectTransform;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@Category(RequiresNone.class)
+public class TransformPoliciesTest {
+
+  private static final String TEST_DEVICE_ID = "test_device";
+  private static final String TEST_CMD = "test_cmd";
+
+  @InjectMocks
+  private TransformPolicies transforms;
+
+  @Mock
+  private ObjectTransform transform;
+
+  @Mock
+  private ServiceDevices devices;
+
+  @Mock
+  private CommandResponseCache cache;
+
+  private Map<String, String> reading;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    Device device = new Device();
+    device.setId(TEST_DEVICE_ID);
+    device.setProfile(profile("0.1"));
+    when(devices.getDevice(TEST_DEVICE_ID)).thenReturn(device);
+    ReflectionTestUtils.setField(transforms, "enabled", true);
+    ReflectionTestUtils.setField(transforms, "bypassDevices", "raw_device");
+    transforms.initialize();
+    reading = new LinkedHashMap<>();
+    reading.put("temperature", "650");
+    reading.put("raw", "7");
+  }
+
+  @Test
+  public void testApply() {
+    Map<String, String> transformed = transforms.apply(TEST_DEVICE_ID, TEST_CMD, reading);
+    assertEquals("Reading not transformed", "25.0", transformed.get("temperature"));
+    assertEquals("Identity resource changed", "7", transformed.get("raw"));
+    transforms.apply(TEST_DEVICE_ID, TEST_CMD, reading);
+    verify(devices, times(1)).getDevice(TEST_DEVICE_ID);
+    verify(transform, never()).setTransformData(anyBoolean());
+  }
+
+  @Test
+  public void testApplyWhileHandlersTransform() {
+    when(transform.getTransformData()).thenReturn(true);
+    assertSame("Handler transformed reading transformed again", reading,
+        transforms.apply(TEST_DEVICE_ID, TEST_CMD, reading));
+    assertTrue("Handler transformed reading reported as raw",
+        transforms.shouldTransform("raw_device", TEST_CMD));
+  }
+
+  @Test
+  public void testPolicies() {
+    assertFalse("Configured bypass not applied",
+        transforms.shouldTransform("raw_device", TEST_CMD));
+    assertTrue("Device without a policy not transformed",
+        transforms.shouldTransform(TEST_DEVICE_ID, TEST_CMD));
+    transforms.setCommandPolicy(TEST_CMD, false);
+    assertSame("Bypassed command transformed", reading,
+        transforms.apply(TEST_DEVICE_ID, TEST_CMD, reading));
+    transforms.setDevicePolicy(TEST_DEVICE_ID, true);
+    assertTrue("Device policy not preferred",
+        transforms.shouldTransform(TEST_DEVICE_ID, TEST_CMD));
+    transforms.setPolicy(TEST_DEVICE_ID, TEST_CMD, false);
+    assertFalse("Device command policy not preferred",
+        transforms.shouldTransform(TEST_DEVICE_ID, TEST_CMD));
+    transforms.setPolicy(TEST_DEVICE_ID, TEST_CMD, null);
+    assertTrue("Policy not cleared", transforms.shouldTransform(TEST_DEVICE_ID, TEST_CMD));
+    verify(cache, times(4)).invalidateAll();
+  }
+
+  @Test
+  public void testInvalidateProfile() {
+    transforms.apply(TEST_DEVICE_ID, TEST_CMD, reading);
+    Device updated = new Device();
+    updated.setId(TEST_DEVICE_ID);
+    updated.setProfile(profile("1.0"));
+    when(devices.getDevice(TEST_DEVICE_ID)).thenReturn(updated);
+    transforms.invalidateProfile("other_profile");
+    assertEquals("Other profile invalidated", "25.0",
+        transforms.apply(TEST_DEVICE_ID, TEST_CMD, reading).get("temperature"));
+    transforms.invalidateProfile("test_profile");
+    verify(devices, times(2)).invalidate();
+    assertEquals("Pipeline not recompiled from updated profile", "610.0",
+        transforms.apply(TEST_DEVICE_ID, TEST_CMD, reading).get("temperature"));
+  }
+
+  private static DeviceProfile profile(String scale) {
+    DeviceProfile profile = new DeviceProfile();
+    profile.setId("test_profile");
+    profile.setDeviceResources(Arrays.asList(resource("temperature", "Float", scale, "-40"),
+        resource("raw", "Integer", "1.0", "0")));
+    return profile;
+  }
+
+  private static DeviceObject resource(String name, String type, String scale, String offset) {
+    PropertyValue value = new PropertyValue();
+    value.setType(type);
+    value.setScale(scale);
+    value.setOffset(offset);
+    ProfileProperty properties = new ProfileProperty();
+    properties.setValue(value);
+    DeviceObject resource = new DeviceObject();
+    resource.setName(name);
+    resource.setProperties(properties);
+    return resource;
+  }
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright 2016-2017 Dell Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ * @microservice: device-controller
+ * @author: Tyler Cox, Dell
+ * @version: 1.0.0
+ *******************************************************************************/
+
+
+package org.edgexfoundry.device.controller.tuning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.edgexfoundry.device.controller.command.CommandResponseCache;
+import org.edgexfoundry.device.controller.command.CommandTaskExecutor;
+import org.edgexfoundry.device.controller.command.CommandTimeouts;
+import org.edgexfoundry.device.controller.command.DeviceConcurrencyLimiter;
+import org.edgexfoundry.device.controller.discovery.DiscoveryJobs;
+import org.edgexfoundry.device.controller.metrics.MetricsRegistry;
+import org.edgexfoundry.exception.controller.ClientException;
+import org.edgexfoundry.test.category.RequiresNone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+@Category(RequiresNone.class)
+public class RuntimeTuningTest {
+
+  @InjectMocks
+  private RuntimeTuning tuning;
+
+  @Spy
+  private CommandTaskExecutor executor = new CommandTaskExecutor(2, 4, 16);
+
+  @Spy
+  private CommandTimeouts timeouts;
+
+  @Spy
+  private CommandResponseCache cache;
+
+  @Spy
+  private DeviceConcurrencyLimiter limiter;
+
+  @Spy
+  private DiscoveryJobs discovery;
+
+  @Spy
+  private MetricsRegistry metrics;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    executor.initialize();
+    tuning.initialize();
+  }
+
+  @After
+  public void cleanup() {
+    executor.shutdown();
+    discovery.shutdown();
+  }
+
+  @Test
+  public void testApply() {
+    Map<String, Object> settings = new LinkedHashMap<>();
+    settings.put("service.command.pool.size", 8);
+    settings.put("service.command.pool.max", "16");
+    settings.put("service.command.timeout", 500);
+    settings.put("service.command.device.concurrency", 2);
+    settings.put("service.metrics.enabled", false);
+    Map<String, Object> values = tuning.apply(settings);
+    assertEquals("Effective values not reported", 8, values.get("service.command.pool.size"));
+    assertEquals("Pool not grown", 16, executor.getThreadPoolExecutor().getMaximumPoolSize());
+    assertEquals("Pool core not grown", 8, executor.getThreadPoolExecutor().getCorePoolSize());
+    assertEquals("Timeout not applied", Long.valueOf(500), timeouts.getTimeout("test_cmd"));
+    assertEquals("Device limit not applied", 2, limiter.getLimit());
+    assertFalse("Metrics not disabled", metrics.isEnabled());
+    settings.clear();
+    settings.put("service.command.pool.size", 1);
+    settings.put("service.command.pool.max", 1);
+    tuning.apply(settings);
+    assertEquals("Pool not shrunk", 1, executor.getThreadPoolExecutor().getMaximumPoolSize());
+  }
+
+  @Test
+  public void testApplyInvalid() {
+    assertInvalid("service.command.timeout", 500, "service.command.cache.ttl", 1.5);
+    assertInvalid("service.command.timeout", 500, "service.command.device.wait", -1);
+    assertInvalid("service.command.timeout", 500, "service.command.cache.enabled", "yes");
+    assertInvalid("service.command.timeout", 500, "service.command.unknown", 1);
+    assertInvalid("service.command.pool.size", 4, "service.command.pool.max", 3);
+    assertEquals("Timeout applied with an invalid setting", 60000L,
+        tuning.getValues().get("service.command.timeout"));
+    assertEquals("Pool resized with an invalid setting", 2,
+        tuning.getValues().get("service.command.pool.size"));
+  }
+
+  private void assertInvalid(String name, Object value, String invalidName, Object invalid) {
+    Map<String, Object> settings = new LinkedHashMap<>();
+    settings.put(name, value);
+    settings.put(invalidName, invalid);
+    try {
+      tuning.apply(settings);
+      fail("Invalid setting applied: " + invalidName + "=" + invalid);
+    } catch (ClientException e) {
+      // expected
+    }
+  }
+}